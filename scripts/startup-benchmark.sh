@@ -0,0 +1,70 @@
+#!/usr/bin/env bash
+# Mide el arranque de la aplicación en cada modo de ejecución: tiempo hasta la primera petición respondida
+# (GET /tasks) y memoria residente (RSS) justo después. Los modos cuyo artefacto no se ha construido se omiten:
+#
+#   mvn package -DskipTests                  -> jvm
+#   mvn -Pcds package -DskipTests            -> cds
+#   mvn -Paot package -DskipTests            -> aot
+#   mvn -Paot,cds package -DskipTests        -> aot, cds-aot (el archivo CDS se entrena con el código AOT)
+#   mvn -Pnative native:compile -DskipTests  -> native
+#
+# Uso: scripts/startup-benchmark.sh [repeticiones] [puerto]
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${2:-18080}
+TIMEOUT_SECONDS=60
+TARGET=$(cd "$(dirname "$0")/../target" && pwd)
+JAR=$(ls "$TARGET"/task.manager-*.jar 2>/dev/null | grep -v '\.original$' | head -n 1 || true)
+CDS_JAR=$([ -n "$JAR" ] && echo "$TARGET/cds/$(basename "$JAR")" || true)
+ARGS=(--server.port="$PORT" --logging.level.root=WARN)
+
+# Tiempo hasta la primera respuesta (ms) y RSS (MB) de un arranque
+measure() {
+  local start pid elapsed rss
+  start=$(date +%s%N)
+  "$@" "${ARGS[@]}" > "$TARGET/startup-benchmark.log" 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "http://localhost:$PORT/tasks"; do
+    if ! kill -0 "$pid" 2>/dev/null || (( ($(date +%s%N) - start) / 1000000000 > TIMEOUT_SECONDS )); then
+      echo "El arranque ha fallado, ver $TARGET/startup-benchmark.log" >&2
+      kill "$pid" 2>/dev/null || true
+      return 1
+    fi
+    sleep 0.01
+  done
+  elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+  rss=$(( $(ps -o rss= -p "$pid") / 1024 ))
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo "$elapsed $rss"
+}
+
+run_mode() {
+  local mode=$1 artifact=$2
+  shift 2
+  if [ -z "$artifact" ] || [ ! -e "$artifact" ]; then
+    printf '%-8s %s\n' "$mode" "omitido (no se ha construido)"
+    return
+  fi
+  local total_ms=0 total_rss=0 best_ms= ms rss
+  for ((i = 1; i <= RUNS; i++)); do
+    local result
+    if ! result=$(measure "$@"); then
+      printf '%-8s %s\n' "$mode" "falló el arranque"
+      return
+    fi
+    read -r ms rss <<< "$result"
+    total_ms=$((total_ms + ms))
+    total_rss=$((total_rss + rss))
+    if [ -z "$best_ms" ] || [ "$ms" -lt "$best_ms" ]; then best_ms=$ms; fi
+  done
+  printf '%-8s %10d %10d %10d\n' "$mode" $((total_ms / RUNS)) "$best_ms" $((total_rss / RUNS))
+}
+
+printf '%-8s %10s %10s %10s\n' "modo" "media ms" "mejor ms" "RSS MB"
+run_mode jvm "$JAR" java -jar "$JAR"
+run_mode cds "$TARGET/cds/application.jsa" java -XX:SharedArchiveFile="$TARGET/cds/application.jsa" -jar "$CDS_JAR"
+run_mode aot "$TARGET/spring-aot" java -Dspring.aot.enabled=true -jar "$JAR"
+run_mode cds-aot "$([ -d "$TARGET/spring-aot" ] && echo "$TARGET/cds/application.jsa")" java -XX:SharedArchiveFile="$TARGET/cds/application.jsa" -Dspring.aot.enabled=true -jar "$CDS_JAR"
+run_mode native "$TARGET/task-manager" "$TARGET/task-manager"
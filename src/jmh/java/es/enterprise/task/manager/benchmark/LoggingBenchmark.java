@@ -0,0 +1,94 @@
+package es.enterprise.task.manager.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Coste por petición del logging antes (dos líneas INFO con appender síncrono) y después
+// (trazas DEBUG desactivadas más una línea resumen con appender asíncrono)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class LoggingBenchmark {
+
+    @Param({"sync", "async"})
+    private String appender;
+
+    private LoggerContext loggerContext;
+    private Logger log;
+    private Path logFile;
+    private final Long id = 42L;
+    private final String title = "Benchmark task";
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        logFile = Files.createTempFile("task-manager-benchmark", ".log");
+        loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        loggerContext.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss} %-5level [%thread] %logger{36} - %msg%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(loggerContext);
+        fileAppender.setFile(logFile.toString());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        Appender<ILoggingEvent> rootAppender = fileAppender;
+        if ("async".equals(appender)) {
+            // Misma configuración que ASYNC_FILE en logback-spring.xml
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(loggerContext);
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setDiscardingThreshold(1638);
+            asyncAppender.setNeverBlock(true);
+            asyncAppender.addAppender(fileAppender);
+            asyncAppender.start();
+            rootAppender = asyncAppender;
+        }
+
+        ch.qos.logback.classic.Logger root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+        root.addAppender(rootAppender);
+        log = LoggerFactory.getLogger("es.enterprise.task.manager.service.TaskService");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        loggerContext.stop();
+        Files.deleteIfExists(logFile);
+    }
+
+    // Antes: dos trazas INFO por cada GET /tasks/{id}
+    @Benchmark
+    public void infoPerStep() {
+        log.info("Buscando tarea con ID: {}", id);
+        log.info("Tarea encontrada: {}", title);
+    }
+
+    // Después: trazas del servicio en DEBUG (desactivadas) y una línea resumen por petición
+    @Benchmark
+    public void debugStepsWithSummary() {
+        log.debug("Buscando tarea con ID: {}", id);
+        log.debug("Tarea encontrada: {}", title);
+        log.info("method={} uri={} status={} durationMs={}", "GET", "/tasks/42", 200, 1L);
+    }
+}
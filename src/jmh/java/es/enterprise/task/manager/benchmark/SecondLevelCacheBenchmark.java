@@ -0,0 +1,102 @@
+package es.enterprise.task.manager.benchmark;
+
+import es.enterprise.task.manager.TaskManagerApplication;
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.dto.TaskPageDTO;
+import es.enterprise.task.manager.service.TaskService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Operaciones de TaskService con y sin la caché de segundo nivel y de consultas de Hibernate. Al terminar cada
+// combinación de parámetros se imprime cuántas sentencias llegaron a la base de datos y los aciertos de cada caché.
+// Las lecturas de la API usan proyecciones a TaskDTO, que no pasan por la región de entidades: GET /tasks/{id}
+// (getHotTaskById) no mejora con ella, y las consultas por estado solo con la caché de consultas. La región de
+// entidades solo ahorra el SELECT de findById/findAllById en PUT /tasks/{id} y PUT /tasks/batch (updateHotTask).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecondLevelCacheBenchmark {
+
+    private static final int INITIAL_TASKS = 10_000;
+    // Conjunto de tareas "calientes" que se leen una y otra vez
+    private static final int HOT_TASKS = 100;
+
+    @Param({"true", "false"})
+    private boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private Statistics statistics;
+    private List<Long> hotIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TaskManagerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "task-manager.cache.enabled=false",
+                        "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                        "spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache,
+                        "logging.level.es.enterprise.task.manager=WARN")
+                .run();
+        taskService = context.getBean(TaskService.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        List<TaskDTO> tasks = new ArrayList<>(INITIAL_TASKS);
+        for (int i = 0; i < INITIAL_TASKS; i++) {
+            tasks.add(new TaskDTO(null, "Task " + i, "Description " + i, i % 2 == 0 ? "pending" : "done"));
+        }
+        hotIds = taskService.createTasks(tasks).stream().limit(HOT_TASKS).map(result -> result.getId()).toList();
+        statistics.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%nsecondLevelCache=%s statements=%d entityHits=%d entityMisses=%d queryHits=%d queryMisses=%d%n",
+                secondLevelCache, statistics.getPrepareStatementCount(),
+                statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+                statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount());
+        context.close();
+    }
+
+    @Benchmark
+    public TaskDTO getHotTaskById() {
+        return taskService.getTaskById(randomHotId());
+    }
+
+    @Benchmark
+    public TaskDTO updateHotTask() {
+        long id = randomHotId();
+        return taskService.updateTask(id, new TaskDTO(id, "Task " + id, "Updated", "pending"), null);
+    }
+
+    @Benchmark
+    public Page<TaskDTO> getTasksByStatus() {
+        return taskService.getTasksByStatus("pending", PageRequest.of(0, 50, Sort.by("id")));
+    }
+
+    @Benchmark
+    public TaskPageDTO getTasksPageByStatus() {
+        return taskService.getTasksPage(null, 50, "done", null);
+    }
+
+    private long randomHotId() {
+        return hotIds.get(ThreadLocalRandom.current().nextInt(hotIds.size()));
+    }
+}
@@ -0,0 +1,84 @@
+package es.enterprise.task.manager.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import es.enterprise.task.manager.dto.TaskDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Serialización de listas grandes de TaskDTO, como las que devuelve GET /tasks, en cada formato que ofrece la API.
+// El tamaño de la respuesta de cada formato se imprime al terminar cada combinación de parámetros.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationFormatBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int size;
+
+    @Param({"json", "json-gzip", "ndjson", "cbor", "smile"})
+    private String format;
+
+    private List<TaskDTO> tasks;
+    private ObjectMapper objectMapper;
+    private ObjectWriter listWriter;
+
+    @Setup
+    public void setUp() {
+        tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(new TaskDTO((long) i, "Task " + i, "Description of task number " + i, i % 2 == 0 ? "pending" : "done", 0L));
+        }
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        objectMapper = new ObjectMapper(factory);
+        listWriter = objectMapper.writerFor(new TypeReference<List<TaskDTO>>() {
+        });
+    }
+
+    @TearDown
+    public void printPayloadSize() throws IOException {
+        System.out.printf("%nformat=%s size=%d payloadBytes=%d%n", format, size, serialize().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        switch (format) {
+            case "json-gzip" -> {
+                try (OutputStream gzip = new GZIPOutputStream(bytes)) {
+                    listWriter.writeValue(gzip, tasks);
+                }
+            }
+            case "ndjson" -> {
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(bytes)) {
+                    generator.setRootValueSeparator(null);
+                    for (TaskDTO task : tasks) {
+                        generator.writeObject(task);
+                        generator.writeRaw('\n');
+                    }
+                }
+            }
+            default -> listWriter.writeValue(bytes, tasks);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,95 @@
+package es.enterprise.task.manager.benchmark;
+
+import es.enterprise.task.manager.TaskManagerApplication;
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Operaciones de TaskService con cada motor de almacenamiento: JPA sobre H2 en memoria y el almacén en memoria con
+// WAL, con fsync en cada grupo de escrituras y sin él. Se ejecuta con 4 hilos para que el commit en grupo del WAL
+// reparta cada fsync entre varias escrituras. Sin caché de TaskDTO, para medir el motor y no la caché.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class StorageModeBenchmark {
+
+    private static final int INITIAL_TASKS = 10_000;
+
+    @Param({"jpa", "memory", "memory-nofsync"})
+    private String storage;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private Path directory;
+    private long maxId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("task-store-benchmark");
+        context = new SpringApplicationBuilder(TaskManagerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "task-manager.cache.enabled=false",
+                        "task-manager.storage.mode=" + (storage.startsWith("memory") ? "memory" : "jpa"),
+                        "task-manager.storage.memory.directory=" + directory,
+                        "task-manager.storage.memory.fsync=" + !storage.equals("memory-nofsync"),
+                        "logging.level.es.enterprise.task.manager=WARN")
+                .run();
+        taskService = context.getBean(TaskService.class);
+        List<TaskDTO> tasks = new ArrayList<>(INITIAL_TASKS);
+        for (int i = 0; i < INITIAL_TASKS; i++) {
+            tasks.add(new TaskDTO(null, "Task " + i, "Description " + i, i % 2 == 0 ? "pending" : "done"));
+        }
+        maxId = taskService.createTasks(tasks).stream().mapToLong(result -> result.getId()).max().orElseThrow();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    private long randomId() {
+        return maxId - ThreadLocalRandom.current().nextLong(INITIAL_TASKS);
+    }
+
+    @Benchmark
+    public TaskDTO getTaskById() {
+        return taskService.getTaskById(randomId());
+    }
+
+    @Benchmark
+    public Page<TaskDTO> getTasksByStatus() {
+        return taskService.getTasksByStatus("pending", PageRequest.of(0, 50, Sort.by("id")));
+    }
+
+    @Benchmark
+    public TaskDTO createTask() {
+        return taskService.createTask(new TaskDTO(null, "Benchmark task", "Description", "pending"));
+    }
+
+    @Benchmark
+    public void updateTaskStatus() {
+        taskService.updateTaskStatus(randomId(), ThreadLocalRandom.current().nextBoolean() ? "done" : "pending");
+    }
+}
@@ -0,0 +1,38 @@
+package es.enterprise.task.manager.benchmark;
+
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.entity.Task;
+import es.enterprise.task.manager.entity.TaskStatus;
+import es.enterprise.task.manager.mapper.TaskMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Coste de la conversión entidad <-> DTO que se paga en cada lectura y escritura
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskMapperBenchmark {
+
+    private Task task;
+    private TaskDTO taskDTO;
+
+    @Setup
+    public void setUp() {
+        task = new Task(1L, "Benchmark task", "x".repeat(500), TaskStatus.PENDING);
+        taskDTO = new TaskDTO(1L, "Benchmark task", "x".repeat(500), "pending");
+    }
+
+    @Benchmark
+    public TaskDTO toDTO() {
+        return TaskMapper.toDTO(task);
+    }
+
+    @Benchmark
+    public Task toEntity() {
+        return TaskMapper.toEntity(taskDTO);
+    }
+}
@@ -0,0 +1,89 @@
+package es.enterprise.task.manager.benchmark;
+
+import es.enterprise.task.manager.TaskManagerApplication;
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.dto.TaskPageDTO;
+import es.enterprise.task.manager.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Operaciones CRUD de TaskService contra H2 embebido, con el contexto de Spring completo y sin caché
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    private static final int INITIAL_TASKS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TaskManagerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "task-manager.cache.enabled=false",
+                        "logging.level.es.enterprise.task.manager=WARN")
+                .run();
+        taskService = context.getBean(TaskService.class);
+        List<TaskDTO> tasks = new ArrayList<>(INITIAL_TASKS);
+        for (int i = 0; i < INITIAL_TASKS; i++) {
+            tasks.add(new TaskDTO(null, "Task " + i, "Description " + i, i % 2 == 0 ? "pending" : "done"));
+        }
+        ids = taskService.createTasks(tasks).stream().map(result -> result.getId()).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private Long randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    @Benchmark
+    public TaskDTO getTaskById() {
+        return taskService.getTaskById(randomId());
+    }
+
+    @Benchmark
+    public TaskDTO createTask() {
+        return taskService.createTask(new TaskDTO(null, "New task", "Created by benchmark", "pending"));
+    }
+
+    @Benchmark
+    public TaskDTO updateTask() {
+        Long id = randomId();
+        return taskService.updateTask(id, new TaskDTO(id, "Updated task", "Updated by benchmark", "done"), null);
+    }
+
+    @Benchmark
+    public boolean createAndDeleteTask() {
+        TaskDTO created = taskService.createTask(new TaskDTO(null, "Temporary task", "Deleted by benchmark", "pending"));
+        return taskService.deleteTask(created.getId());
+    }
+
+    @Benchmark
+    public TaskPageDTO getTasksPage() {
+        return taskService.getTasksPage(null, 100, null, null);
+    }
+
+    @Benchmark
+    public TaskPageDTO getTasksPageSelectedFields() {
+        return taskService.getTasksPage(null, 100, null, "id,title,status");
+    }
+}
@@ -0,0 +1,35 @@
+package es.enterprise.task.manager.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+// Respuestas asíncronas (StreamingResponseBody) con un tiempo máximo propio: el controlador lo indica en el
+// atributo TIMEOUT_ATTRIBUTE de la petición (0 = sin límite) y sustituye a spring.mvc.async.request-timeout.
+// Lo usa GET /tasks/export, que con tablas grandes puede durar mucho más que el resto de respuestas en streaming
+@Configuration
+public class AsyncConfig implements WebMvcConfigurer {
+
+    public static final String TIMEOUT_ATTRIBUTE = AsyncConfig.class.getName() + ".timeout";
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            // Se ejecuta justo antes de iniciar el procesamiento asíncrono, cuando aún se puede cambiar el tiempo máximo
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                if (request instanceof AsyncWebRequest asyncWebRequest
+                        && request.getAttribute(TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Duration timeout) {
+                    asyncWebRequest.setTimeout(timeout.isZero() || timeout.isNegative() ? -1L : timeout.toMillis());
+                }
+            }
+        });
+    }
+}
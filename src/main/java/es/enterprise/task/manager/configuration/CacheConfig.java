@@ -0,0 +1,36 @@
+package es.enterprise.task.manager.configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Caché en memoria de TaskDTO por ID (Caffeine, expulsión W-TinyLFU); se desactiva con task-manager.cache.enabled=false
+@Configuration
+@EnableCaching
+@ConditionalOnProperty(name = "task-manager.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheConfig {
+
+    public static final String TASKS_CACHE = "tasks";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${task-manager.cache.maximum-size:10000}") long maximumSize,
+                                     @Value("${task-manager.cache.ttl:10m}") Duration ttl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(TASKS_CACHE);
+        cacheManager.setAllowNullValues(false);
+        // recordStats() mantiene los contadores de aciertos, fallos y expulsiones
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        // Las escrituras en caché se aplican tras el commit para no publicar datos de una transacción revertida
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
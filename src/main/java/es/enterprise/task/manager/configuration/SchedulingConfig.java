@@ -0,0 +1,10 @@
+package es.enterprise.task.manager.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Tareas periódicas (@Scheduled), como el cuadre de los contadores de GET /tasks/stats
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
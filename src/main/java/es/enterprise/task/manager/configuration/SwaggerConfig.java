@@ -2,9 +2,14 @@ package es.enterprise.task.manager.configuration;
 
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.OpenAPI;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+
+// Documentación OpenAPI y Swagger UI; con springdoc.api-docs.enabled=false (perfil prod) no se registra nada
+// y springdoc no escanea los controladores al arrancar
 @Configuration
+@ConditionalOnProperty(name = "springdoc.api-docs.enabled", havingValue = "true", matchIfMissing = true)
 public class SwaggerConfig {
 
     @Bean
@@ -15,4 +20,4 @@ public class SwaggerConfig {
                         .version("1.0")
                         .description("API para gestionar tareas con Spring Boot"));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+package es.enterprise.task.manager.controller;
+
+import es.enterprise.task.manager.exception.InvalidTaskDataException;
+import es.enterprise.task.manager.repository.TaskCollectionVersion;
+
+// Construcción y comparación de ETags para las peticiones condicionales (If-None-Match / If-Match).
+// Son ETags débiles (W/"..."): identifican la versión de la tarea o de la colección, no los bytes de la respuesta,
+// que cambian con el formato (JSON, CBOR, Smile) y con la compresión. Tomcat no comprime las respuestas con un
+// ETag fuerte, porque el cuerpo comprimido ya no correspondería a ese ETag
+final class ETags {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    static String forTask(Long version) {
+        return WEAK_PREFIX + "\"" + version + "\"";
+    }
+
+    static String forCollection(TaskCollectionVersion version) {
+        return WEAK_PREFIX + "\"c" + version.count() + "-" + version.maxId() + "-" + version.versionSum() + "\"";
+    }
+
+    // If-None-Match: comparación débil contra una lista de ETags o "*"
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = opaqueTag(candidate.trim());
+            if (value.equals("*") || value.equals(opaqueTag(etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // If-Match: devuelve la versión esperada, o null si no hay cabecera o es "*". Se acepta el ETag débil que
+    // devuelve la API: la versión identifica el estado de la tarea, que es lo que se quiere comprobar
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = opaqueTag(ifMatch.trim());
+        if (value.length() < 3 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            throw new InvalidTaskDataException("Cabecera If-Match no válida: " + ifMatch);
+        }
+        try {
+            return Long.parseLong(value.substring(1, value.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new InvalidTaskDataException("Cabecera If-Match no válida: " + ifMatch);
+        }
+    }
+
+    private static String opaqueTag(String etag) {
+        return etag.startsWith(WEAK_PREFIX) ? etag.substring(WEAK_PREFIX.length()) : etag;
+    }
+}
@@ -0,0 +1,44 @@
+package es.enterprise.task.manager.controller;
+
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.dto.TaskWriteStatusDTO;
+import es.enterprise.task.manager.exception.TaskNotFoundException;
+import es.enterprise.task.manager.writebehind.TaskWriteBehindQueue;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+// Altas asíncronas (modo write-behind); solo existe con task-manager.write-behind.enabled=true
+@RestController
+@RequestMapping("/tasks/async")
+@Tag(name = "Tareas", description = "Endpoints para gestionar tareas")
+@ConditionalOnProperty(name = "task-manager.write-behind.enabled", havingValue = "true")
+public class TaskAsyncController {
+
+    @Autowired
+    private TaskWriteBehindQueue taskWriteBehindQueue;
+
+    // Aceptar una tarea para crearla en segundo plano
+    @PostMapping
+    @Operation(summary = "Crear una tarea en segundo plano", description = "Valida la tarea, la encola y devuelve 202 con el ID de seguimiento; 503 con Retry-After si la cola está llena")
+    public ResponseEntity<TaskWriteStatusDTO> createTaskAsync(@RequestBody TaskDTO taskDTO) {
+        String trackingId = taskWriteBehindQueue.submit(taskDTO);
+        return ResponseEntity.accepted()
+                .location(URI.create("/tasks/async/" + trackingId))
+                .body(new TaskWriteStatusDTO(trackingId, TaskWriteStatusDTO.QUEUED, null, null)); // 202 Accepted
+    }
+
+    // Consultar el estado de un alta en segundo plano
+    @GetMapping("/{trackingId}")
+    @Operation(summary = "Consultar un alta en segundo plano", description = "Devuelve si la tarea sigue en cola, se ha creado (con su ID) o ha fallado")
+    public ResponseEntity<TaskWriteStatusDTO> getTaskWriteStatus(@PathVariable String trackingId) {
+        return taskWriteBehindQueue.getStatus(trackingId)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new TaskNotFoundException("Alta en segundo plano no encontrada: " + trackingId));
+    }
+}
@@ -1,19 +1,58 @@
 package es.enterprise.task.manager.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import es.enterprise.task.manager.configuration.AsyncConfig;
+import es.enterprise.task.manager.dto.TaskBatchResultDTO;
+import es.enterprise.task.manager.dto.TaskChangeDTO;
 import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.dto.TaskImportResultDTO;
+import es.enterprise.task.manager.dto.TaskPageDTO;
+import es.enterprise.task.manager.dto.TaskStatsDTO;
+import es.enterprise.task.manager.event.TaskChangeFeed;
+import es.enterprise.task.manager.repository.TaskCollectionVersion;
 import es.enterprise.task.manager.exception.InvalidTaskDataException;
 import es.enterprise.task.manager.service.TaskService;
+import es.enterprise.task.manager.stats.TaskStatistics;
+import es.enterprise.task.manager.transfer.TaskCsv;
+import es.enterprise.task.manager.transfer.TaskImporter;
+import es.enterprise.task.manager.transfer.TaskNdjson;
 import es.enterprise.task.manager.exception.TaskNotFoundException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 @RestController
 @RequestMapping("/tasks")
@@ -23,21 +62,168 @@ public class TaskController {
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskChangeFeed taskChangeFeed;
+
+    @Autowired
+    private TaskStatistics taskStatistics;
+
+    @Autowired
+    private TaskImporter taskImporter;
+
+    @Value("${task-manager.changes.poll-timeout:30s}")
+    private Duration changesPollTimeout = Duration.ofSeconds(30);
+
+    @Value("${task-manager.changes.stream-timeout:30m}")
+    private Duration changesStreamTimeout = Duration.ofMinutes(30);
+
+    @Value("${task-manager.export.timeout:0}")
+    private Duration exportTimeout = Duration.ZERO;
+
     // Obtener todas las tareas
     @GetMapping
-    @Operation(summary = "Obtener todas las tareas", description = "Devuelve una lista de todas las tareas existentes")
-    public ResponseEntity<List<TaskDTO>> getAllTasks() {
+    @Operation(summary = "Obtener todas las tareas", description = "Devuelve una lista de todas las tareas existentes, o 304 si no han cambiado desde el ETag indicado")
+    public ResponseEntity<List<TaskDTO>> getAllTasks(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // La versión se calcula antes de leer las filas: si algo cambia entremedias el ETag queda
+        // desfasado hacia atrás y el cliente simplemente volverá a descargar la colección
+        TaskCollectionVersion version = taskService.getCollectionVersion();
+        String etag = ETags.forCollection(version);
+        // La misma colección se puede servir en JSON, CBOR o Smile: las cachés deben distinguir por Accept
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
         List<TaskDTO> tasks = taskService.getAllTasks();
-        return ResponseEntity.ok(tasks);
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(tasks);
+    }
+
+    // Obtener las tareas paginadas por cursor
+    @GetMapping("/page")
+    @Operation(summary = "Obtener tareas paginadas", description = "Devuelve una página de tareas ordenadas por ID, opcionalmente filtradas por estado y con solo los campos indicados en fields, y el cursor de la página siguiente")
+    public ResponseEntity<TaskPageDTO> getTasksPage(@RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer size,
+                                                    @RequestParam(required = false) String status,
+                                                    @RequestParam(required = false) String fields) {
+        TaskPageDTO page = taskService.getTasksPage(cursor, size, status, fields);
+        return ResponseEntity.ok(page);
+    }
+
+    // Obtener todas las tareas en streaming, escribiendo cada fila según se lee de la base de datos
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Obtener todas las tareas en streaming", description = "Devuelve un array JSON con todas las tareas sin cargarlas en memoria")
+    public ResponseEntity<StreamingResponseBody> streamAllTasks() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(streamTasks(false, false));
+    }
+
+    // Misma ruta con Accept: application/x-ndjson: una tarea JSON por línea, que el cliente puede procesar según llega
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Obtener todas las tareas en streaming (NDJSON)", description = "Devuelve una tarea JSON por línea sin cargarlas en memoria")
+    public ResponseEntity<StreamingResponseBody> streamAllTasksAsNdjson() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(streamTasks(true, false));
+    }
+
+    // Exportar todas las tareas en NDJSON, leyendo con un cursor de solo avance y escribiendo cada fila según llega.
+    // La exportación tiene su propio tiempo máximo (task-manager.export.timeout) y termina con una línea de cierre
+    // con el número de tareas, para que el cliente distinga un fichero completo de uno cortado
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar tareas (NDJSON)", description = "Descarga todas las tareas, una tarea JSON por línea, con memoria constante. La última línea es {\"endOfExport\":true,\"count\":N}")
+    public ResponseEntity<StreamingResponseBody> exportTasksAsNdjson(HttpServletRequest request) {
+        request.setAttribute(AsyncConfig.TIMEOUT_ATTRIBUTE, exportTimeout);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("tasks.ndjson").build().toString())
+                .body(streamTasks(true, true));
+    }
+
+    // Misma ruta con Accept: text/csv
+    @GetMapping(value = "/export", produces = TaskCsv.MEDIA_TYPE)
+    @Operation(summary = "Exportar tareas (CSV)", description = "Descarga todas las tareas en CSV con cabecera, con memoria constante. El último registro es #endOfExport,N")
+    public ResponseEntity<StreamingResponseBody> exportTasksAsCsv(HttpServletRequest request) {
+        request.setAttribute(AsyncConfig.TIMEOUT_ATTRIBUTE, exportTimeout);
+        return ResponseEntity.ok().contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("tasks.csv").build().toString())
+                .body(outputStream -> {
+                    Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+                    TaskCsv.writeHeader(writer);
+                    long[] count = {0};
+                    taskService.streamAllTasks(task -> {
+                        try {
+                            TaskCsv.writeRow(writer, task);
+                            count[0]++;
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    TaskCsv.writeEnd(writer, count[0]);
+                    writer.flush();
+                });
+    }
+
+    // Importar tareas desde NDJSON o CSV (admite Content-Encoding: gzip). El cuerpo se lee según se escribe en
+    // bloques, así que el tamaño del fichero no está limitado por la memoria
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TaskCsv.MEDIA_TYPE})
+    @Operation(summary = "Importar tareas", description = "Crea las tareas del cuerpo (NDJSON o CSV) con IDs nuevos, en transacciones por bloques, y devuelve el resumen; 400 si el formato es incorrecto o faltan filas según la línea de cierre, con las filas ya importadas")
+    public ResponseEntity<TaskImportResultDTO> importTasks(HttpServletRequest request) throws IOException {
+        InputStream body = request.getInputStream();
+        if ("gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            body = new GZIPInputStream(body, 64 * 1024);
+        }
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        TaskImportResultDTO result;
+        if (contentType.isCompatibleWith(MediaType.APPLICATION_NDJSON)) {
+            result = taskImporter.importTasks(TaskNdjson.reader(objectMapper, body));
+        } else {
+            Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+            result = taskImporter.importTasks(TaskCsv.reader(new BufferedReader(new InputStreamReader(body, charset), 64 * 1024)));
+        }
+        return ResponseEntity.status(result.isCompleted() ? HttpStatus.OK : HttpStatus.BAD_REQUEST).body(result);
+    }
+
+    // Long-poll de cambios: responde en cuanto hay cambios posteriores a since o vacío al agotar el tiempo
+    @GetMapping("/changes")
+    @Operation(summary = "Consultar cambios de tareas", description = "Devuelve los cambios posteriores a la secuencia indicada; si no hay, espera al siguiente cambio. Sin since empieza desde el último cambio")
+    public DeferredResult<List<TaskChangeDTO>> getChanges(@RequestParam(required = false) Long since,
+                                                          @RequestParam(defaultValue = "100") int limit) {
+        long from = since != null ? since : taskChangeFeed.getLastSequence();
+        return taskChangeFeed.poll(from, Math.max(1, Math.min(limit, 1000)), changesPollTimeout.toMillis());
+    }
+
+    // Flujo Server-Sent Events con los cambios de tareas; Last-Event-ID permite reanudar
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Suscribirse a los cambios de tareas", description = "Envía cada alta, modificación o borrado como un evento SSE con su número de secuencia")
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return taskChangeFeed.subscribe(lastEventId, changesStreamTimeout.toMillis());
+    }
+
+    // Número de tareas por estado y total, desde contadores en memoria
+    @GetMapping("/stats")
+    @Operation(summary = "Obtener estadísticas de tareas", description = "Devuelve el número total de tareas y el número de tareas por estado, sin recorrer la tabla")
+    public ResponseEntity<TaskStatsDTO> getTaskStats() {
+        return ResponseEntity.ok(taskStatistics.getStats());
+    }
+
+    // Buscar tareas por palabras clave
+    @GetMapping("/search")
+    @Operation(summary = "Buscar tareas", description = "Devuelve una página de tareas cuyo título o descripción contienen las palabras buscadas, ordenadas por relevancia")
+    public ResponseEntity<PagedModel<TaskDTO>> searchTasks(@RequestParam("q") String query,
+                                                           @PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(new PagedModel<>(taskService.searchTasks(query, pageable)));
     }
 
     // Obtener una tarea por ID
     @GetMapping("/{id}")
     @Operation(summary = "Obtener una tarea por su ID", description = "Devuelve un objeto TaskDTO con la información de la tarea")
-    public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long id) {
+    public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long id,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         TaskDTO taskDTO = taskService.getTaskById(id);
         if (taskDTO != null) {
-            return ResponseEntity.ok(taskDTO);
+            String etag = ETags.forTask(taskDTO.getVersion());
+            // Como en GET /tasks, la tarea se sirve en JSON, CBOR o Smile con el mismo ETag
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+            }
+            return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(taskDTO);
         } else {
             throw new TaskNotFoundException(id.toString()); // Lanzamos una excepción personalizada
         }
@@ -54,6 +240,27 @@ public class TaskController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdTask); // 201 Created
     }
 
+    // Crear varias tareas en una sola petición
+    @PostMapping("/batch")
+    @Operation(summary = "Crear tareas en lote", description = "Crea las tareas en transacciones por bloques y devuelve el resultado de cada elemento")
+    public ResponseEntity<List<TaskBatchResultDTO>> createTasks(@RequestBody List<TaskDTO> taskDTOs) {
+        return ResponseEntity.ok(taskService.createTasks(taskDTOs));
+    }
+
+    // Actualizar varias tareas en una sola petición
+    @PutMapping("/batch")
+    @Operation(summary = "Actualizar tareas en lote", description = "Actualiza las tareas indicadas por ID y devuelve el resultado de cada elemento")
+    public ResponseEntity<List<TaskBatchResultDTO>> updateTasks(@RequestBody List<TaskDTO> taskDTOs) {
+        return ResponseEntity.ok(taskService.updateTasks(taskDTOs));
+    }
+
+    // Borrar varias tareas en una sola petición
+    @DeleteMapping("/batch")
+    @Operation(summary = "Borrar tareas en lote", description = "Elimina las tareas con los IDs indicados y devuelve el resultado de cada elemento")
+    public ResponseEntity<List<TaskBatchResultDTO>> deleteTasks(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(taskService.deleteTasks(ids));
+    }
+
     // Borrar una tarea por ID
     @DeleteMapping("/{id}")
     @Operation(summary = "Borrar una tarea", description = "Elimina una tarea existente por su ID")
@@ -68,24 +275,75 @@ public class TaskController {
 
     // Actualizar una tarea por ID
     @PutMapping("/{id}")
-    @Operation(summary = "Actualizar una tarea", description = "Actualiza la información de una tarea existente")
-    public ResponseEntity<TaskDTO> updateTask(@PathVariable Long id, @RequestBody TaskDTO taskDTO) {
-        TaskDTO updatedTask = taskService.updateTask(id, taskDTO);
+    @Operation(summary = "Actualizar una tarea", description = "Actualiza la información de una tarea existente; con If-Match devuelve 412 si la tarea ha cambiado")
+    public ResponseEntity<TaskDTO> updateTask(@PathVariable Long id, @RequestBody TaskDTO taskDTO,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskDTO updatedTask = taskService.updateTask(id, taskDTO, ETags.expectedVersion(ifMatch));
         if (updatedTask != null) {
-            return ResponseEntity.ok(updatedTask);
+            return ResponseEntity.ok().eTag(ETags.forTask(updatedTask.getVersion())).body(updatedTask);
         } else {
             throw new TaskNotFoundException(id.toString()); // Lanzamos una excepción personalizada
         }
     }
 
-    // Consultar tareas por estado (pending/done)
-    @GetMapping("/status/{status}")
-    @Operation(summary = "Consultar tareas por estado", description = "Devuelve las tareas que tienen el estado especificado")
-    public ResponseEntity<List<TaskDTO>> getTasksByStatus(@PathVariable String status) {
-        List<TaskDTO> tasks = taskService.getTasksByStatus(status);
-        if (tasks.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null); // 404 si no hay tareas con ese estado
+    // Actualizar parcialmente una tarea (JSON Merge Patch, RFC 7396)
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Actualizar parcialmente una tarea", description = "Modifica solo los campos enviados con un único UPDATE; con If-Match devuelve 412 si la tarea ha cambiado")
+    public ResponseEntity<Void> patchTask(@PathVariable Long id, @RequestBody Map<String, Object> patch,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        // No se vuelve a leer la tarea: solo hay ETag si se conocía la versión anterior
+        Long newVersion = taskService.patchTask(id, patch, ETags.expectedVersion(ifMatch));
+        ResponseEntity.HeadersBuilder<?> response = ResponseEntity.noContent();
+        if (newVersion != null) {
+            response.eTag(ETags.forTask(newVersion));
         }
-        return ResponseEntity.ok(tasks);
+        return response.build();
+    }
+
+    // Cambiar el estado de una tarea
+    @PutMapping("/{id}/status/{status}")
+    @Operation(summary = "Cambiar el estado de una tarea", description = "Actualiza solo el estado de la tarea con una única sentencia UPDATE")
+    public ResponseEntity<Void> updateTaskStatus(@PathVariable Long id, @PathVariable String status) {
+        taskService.updateTaskStatus(id, status);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Consultar tareas por estado (pending/done), paginadas y ordenables (?page=0&size=50&sort=title,asc)
+    @GetMapping("/status/{status}")
+    @Operation(summary = "Consultar tareas por estado", description = "Devuelve una página de las tareas que tienen el estado especificado")
+    public ResponseEntity<PagedModel<TaskDTO>> getTasksByStatus(@PathVariable String status,
+                                                                @PageableDefault(size = 50, sort = "id", direction = Sort.Direction.ASC) Pageable pageable) {
+        // Un estado sin tareas devuelve una página vacía, no un 404
+        return ResponseEntity.ok(new PagedModel<>(taskService.getTasksByStatus(status, pageable)));
+    }
+
+    // Escribe las tareas según se leen: como array JSON o, con ndjson, una por línea (y con end, la línea de cierre)
+    private StreamingResponseBody streamTasks(boolean ndjson, boolean end) {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                if (ndjson) {
+                    generator.setRootValueSeparator(null);
+                } else {
+                    generator.writeStartArray();
+                }
+                long[] count = {0};
+                taskService.streamAllTasks(task -> {
+                    try {
+                        generator.writeObject(task);
+                        if (ndjson) {
+                            generator.writeRaw('\n');
+                        }
+                        count[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                if (!ndjson) {
+                    generator.writeEndArray();
+                } else if (end) {
+                    TaskNdjson.writeEnd(generator, count[0]);
+                }
+            }
+        };
     }
 }
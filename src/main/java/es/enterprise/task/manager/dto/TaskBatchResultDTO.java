@@ -0,0 +1,18 @@
+package es.enterprise.task.manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskBatchResultDTO {
+    private int index; // Posición del elemento en la petición
+
+    private Long id;
+
+    private int status; // Código HTTP del resultado del elemento (201, 200, 400, 404...)
+
+    private String error;
+}
@@ -0,0 +1,25 @@
+package es.enterprise.task.manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Set;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskChangeDTO {
+    private long sequence; // Número de secuencia monótono, para reanudar con ?since= o Last-Event-ID
+
+    private String type; // CREATED, UPDATED, PATCHED o DELETED
+
+    private Long id;
+
+    private TaskDTO task; // Estado de la tarea tras el cambio, null en los borrados
+
+    private Set<String> fields; // En PATCHED, campos de task que han cambiado
+
+    private Instant timestamp;
+}
@@ -1,5 +1,6 @@
 package es.enterprise.task.manager.dto;
 
+import es.enterprise.task.manager.entity.TaskStatus;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -22,4 +23,14 @@ public class TaskDTO {
     @NotBlank(message = "El estado no puede estar vacío")
     private String status; // "pending" o "done"
 
+    private Long version; // Versión de la tarea, la asigna el servidor
+
+    public TaskDTO(Long id, String title, String description, String status) {
+        this(id, title, description, status, null);
+    }
+
+    // Usado por las proyecciones de TaskRepository (select new TaskDTO(...))
+    public TaskDTO(Long id, String title, String description, TaskStatus status, Long version) {
+        this(id, title, description, status.getValue(), version);
+    }
 }
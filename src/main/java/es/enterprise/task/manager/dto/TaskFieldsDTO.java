@@ -0,0 +1,47 @@
+package es.enterprise.task.manager.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Tarea con solo los campos pedidos con ?fields= en GET /tasks/page. Se serializa con el ID y esos campos (aunque
+// sean null), sin los demás; el resto de respuestas usan TaskDTO con todos sus campos
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class TaskFieldsDTO extends TaskDTO {
+
+    // Campos que se pueden pedir con ?fields=
+    public static final Set<String> SELECTABLE_FIELDS = Set.of("id", "title", "description", "status", "version");
+
+    @JsonIgnore
+    private final Set<String> fields;
+
+    public TaskFieldsDTO(TaskDTO task, Set<String> fields) {
+        super(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(), task.getVersion());
+        this.fields = fields;
+    }
+
+    @JsonValue
+    public Map<String, Object> toJson() {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", getId());
+        for (String field : fields) {
+            switch (field) {
+                case "id" -> {
+                    // Siempre está: lo necesita el cursor de la página siguiente
+                }
+                case "title" -> json.put("title", getTitle());
+                case "description" -> json.put("description", getDescription());
+                case "status" -> json.put("status", getStatus());
+                case "version" -> json.put("version", getVersion());
+                default -> throw new IllegalStateException("Campo no seleccionable: " + field);
+            }
+        }
+        return json;
+    }
+}
@@ -0,0 +1,27 @@
+package es.enterprise.task.manager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Resumen de POST /tasks/import
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskImportResultDTO {
+    private long total; // Filas leídas
+
+    private long created;
+
+    private long failed;
+
+    private boolean completed; // false si la lectura se interrumpió por un error de formato
+
+    private String error; // Motivo de la interrupción
+
+    private List<TaskBatchResultDTO> errors; // Primeras filas rechazadas; index es la posición de la fila (desde 0)
+}
@@ -0,0 +1,16 @@
+package es.enterprise.task.manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskPageDTO {
+    private List<TaskDTO> items;
+
+    private String next; // Cursor opaco para pedir la siguiente página, null si es la última
+}
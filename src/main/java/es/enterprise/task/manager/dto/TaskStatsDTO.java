@@ -0,0 +1,19 @@
+package es.enterprise.task.manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskStatsDTO {
+    private long total;
+
+    private Map<String, Long> byStatus; // Número de tareas por estado (pending, done), incluidos los estados sin tareas
+
+    private Instant reconciledAt; // Última vez que los contadores se cuadraron con la base de datos
+}
@@ -0,0 +1,25 @@
+package es.enterprise.task.manager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Estado de un alta aceptada en modo write-behind (POST /tasks/async)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskWriteStatusDTO {
+    public static final String QUEUED = "queued";
+    public static final String CREATED = "created";
+    public static final String FAILED = "failed";
+
+    private String trackingId;
+
+    private String state; // queued, created o failed
+
+    private Long taskId; // ID de la tarea, una vez creada
+
+    private String error;
+}
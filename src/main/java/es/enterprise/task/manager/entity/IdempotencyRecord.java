@@ -0,0 +1,52 @@
+package es.enterprise.task.manager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Respuesta guardada para una Idempotency-Key, para poder repetirla tras un reinicio o desde otra instancia.
+// La fila se inserta al empezar la petición (IN_PROGRESS) y se completa con la respuesta al terminar
+@Entity
+@Table(name = "idempotency_keys",
+        indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IdempotencyRecord {
+    @Id
+    @Column(name = "idempotency_key", length = 300)
+    private String key; // Método, ruta y hash del cliente y del valor de la cabecera
+
+    @Column(nullable = false, length = 64)
+    private String requestHash; // SHA-256 del cuerpo de la petición original
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private State state;
+
+    @Column(nullable = false)
+    private int status; // 0 mientras la petición está en curso
+
+    @Column(length = 100)
+    private String contentType;
+
+    @Column(length = 2000)
+    private String location;
+
+    @Column(length = 100)
+    private String etag;
+
+    @Column(length = 1000000)
+    private String body; // Cuerpo de la respuesta en Base64 (puede ser JSON, CBOR o Smile)
+
+    @Column(nullable = false)
+    private Instant expiresAt; // En curso: fin de la reserva; completada: fin de la respuesta guardada
+
+    public enum State {
+        IN_PROGRESS,
+        COMPLETED
+    }
+}
@@ -5,18 +5,71 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLRestriction;
+
+import java.time.Instant;
 
 @Entity
-@Table(name = "tasks") // Mapea a la tabla "tasks"
+@Table(name = "tasks", // Mapea a la tabla "tasks", creada por las migraciones de Flyway (db/migration)
+        // El índice (status, id) resuelve los filtros por estado y la paginación keyset dentro de un estado
+        indexes = {
+                @Index(name = "idx_tasks_status_id", columnList = "status, id"),
+                @Index(name = "idx_tasks_status_updated_at", columnList = "status, updated_at"),
+                @Index(name = "idx_tasks_deleted_at", columnList = "deleted_at")})
+// Las tareas borradas lógicamente (task-manager.soft-delete.enabled=true) no aparecen en ninguna consulta
+@SQLRestriction("deleted_at is null")
+// Caché de segundo nivel (región task-entities, ver application.conf). READ_WRITE bloquea la entrada mientras
+// la transacción que modifica la tarea no termina, así que otras lecturas nunca ven un valor sin confirmar
+// Solo la usan findById/findAllById (PUT /tasks/{id} y PUT /tasks/batch): las lecturas de la API son proyecciones a
+// TaskDTO, que no cargan entidades
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Task.CACHE_REGION)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class Task {
+    public static final String CACHE_REGION = "task-entities";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Genera IDs automáticamente
+    // Secuencia con asignación por bloques: permite a Hibernate agrupar los INSERT en lotes JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
 
+    @Column(length = 100)
     private String title;
+
+    @Column(length = 500)
     private String description;
-    private String status;
-}
\ No newline at end of file
+
+    @Column(nullable = false)
+    private TaskStatus status;
+
+    // Bloqueo optimista: se incrementa en cada modificación y sirve de ETag
+    @Version
+    private Long version;
+
+    // Se actualiza en cada alta y modificación; las actualizaciones masivas (HQL) la fijan explícitamente
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    // Fecha del borrado lógico; null mientras la tarea existe
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
+    public Task(Long id, String title, String description, TaskStatus status) {
+        this(id, title, description, status, null);
+    }
+
+    public Task(Long id, String title, String description, TaskStatus status, Long version) {
+        this(id, title, description, status, version, null, null);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
+}
@@ -0,0 +1,47 @@
+package es.enterprise.task.manager.entity;
+
+import es.enterprise.task.manager.exception.InvalidTaskDataException;
+
+// Estados posibles de una tarea; se persisten como un código numérico compacto
+public enum TaskStatus {
+    PENDING("pending", (short) 0),
+    DONE("done", (short) 1);
+
+    private final String value;
+    private final short code;
+
+    TaskStatus(String value, short code) {
+        this.value = value;
+        this.code = code;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    // Normaliza el texto recibido en la API ("pending", " DONE "...) al estado correspondiente
+    public static TaskStatus fromValue(String value) {
+        if (value != null) {
+            String normalized = value.trim();
+            for (TaskStatus status : values()) {
+                if (status.value.equalsIgnoreCase(normalized)) {
+                    return status;
+                }
+            }
+        }
+        throw new InvalidTaskDataException("Estado de tarea no válido: " + value);
+    }
+
+    public static TaskStatus fromCode(short code) {
+        for (TaskStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Código de estado desconocido: " + code);
+    }
+}
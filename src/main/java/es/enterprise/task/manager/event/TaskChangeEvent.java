@@ -0,0 +1,35 @@
+package es.enterprise.task.manager.event;
+
+import es.enterprise.task.manager.dto.TaskDTO;
+
+import java.util.Set;
+
+// Evento publicado por TaskService en cada alta, modificación o borrado de una tarea.
+// Los oyentes lo reciben tras el commit de la transacción (o al momento si no hay transacción).
+// En PATCHED la tarea solo trae los campos indicados en fields, ya que no se lee la fila completa.
+// previousStatus es el estado anterior al cambio (null en altas y en PATCHED que no cambian el estado).
+public record TaskChangeEvent(Type type, Long id, TaskDTO task, Set<String> fields, String previousStatus) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        PATCHED,
+        DELETED
+    }
+
+    public static TaskChangeEvent created(TaskDTO task) {
+        return new TaskChangeEvent(Type.CREATED, task.getId(), task, null, null);
+    }
+
+    public static TaskChangeEvent updated(TaskDTO task, String previousStatus) {
+        return new TaskChangeEvent(Type.UPDATED, task.getId(), task, null, previousStatus);
+    }
+
+    public static TaskChangeEvent patched(TaskDTO partialTask, Set<String> fields, String previousStatus) {
+        return new TaskChangeEvent(Type.PATCHED, partialTask.getId(), partialTask, fields, previousStatus);
+    }
+
+    public static TaskChangeEvent deleted(Long id, String previousStatus) {
+        return new TaskChangeEvent(Type.DELETED, id, null, null, previousStatus);
+    }
+}
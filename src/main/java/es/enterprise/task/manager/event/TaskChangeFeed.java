@@ -0,0 +1,237 @@
+package es.enterprise.task.manager.event;
+
+import es.enterprise.task.manager.dto.TaskChangeDTO;
+import es.enterprise.task.manager.exception.ChangesExpiredException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Registro ordenado y acotado de los últimos cambios de tareas, con número de secuencia monótono.
+// Lo consumen los clientes por long-poll (GET /tasks/changes) o por Server-Sent Events.
+// La secuencia es local a cada instancia de la aplicación.
+@Component
+@Slf4j
+public class TaskChangeFeed {
+
+    private final TaskChangeDTO[] ring;
+    private long lastSequence;
+    private final List<Waiter> waiters = new ArrayList<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final int subscriberQueueCapacity;
+    // Cada suscriptor con cambios pendientes los envía desde su propio hilo, así un cliente lento solo se
+    // retrasa a sí mismo. Los hilos se crean a demanda y se liberan al minuto de quedar libres
+    private final AtomicInteger senderThreads = new AtomicInteger();
+    private final ExecutorService sender = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "task-change-feed-" + senderThreads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private record Waiter(long since, int limit, DeferredResult<List<TaskChangeDTO>> result) {
+    }
+
+    public TaskChangeFeed(@Value("${task-manager.changes.capacity:10000}") int capacity,
+                          @Value("${task-manager.changes.subscriber-queue:1000}") int subscriberQueueCapacity) {
+        this.ring = new TaskChangeDTO[capacity];
+        this.subscriberQueueCapacity = subscriberQueueCapacity;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChange(TaskChangeEvent event) {
+        List<Waiter> ready;
+        List<Subscriber> lagging = new ArrayList<>();
+        synchronized (this) {
+            TaskChangeDTO change = new TaskChangeDTO(++lastSequence, event.type().name(), event.id(), event.task(), event.fields(), Instant.now());
+            ring[(int) (change.getSequence() % ring.length)] = change;
+            ready = new ArrayList<>(waiters);
+            waiters.clear();
+            // Se encola dentro del bloqueo para que los eventos SSE salgan en orden de secuencia
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.offer(change)) {
+                    lagging.add(subscriber);
+                }
+            }
+        }
+        // Un cliente con la cola llena se desconecta: puede reanudar con Last-Event-ID mientras los cambios
+        // sigan en el registro, en lugar de retener memoria sin límite
+        for (Subscriber subscriber : lagging) {
+            log.warn("Cliente SSE con {} cambios sin enviar: se cierra la conexión", subscriberQueueCapacity);
+            subscriber.close();
+            subscriber.emitter().complete();
+        }
+        for (Waiter waiter : ready) {
+            try {
+                waiter.result().setResult(changesSince(waiter.since(), waiter.limit()));
+            } catch (ChangesExpiredException e) {
+                waiter.result().setErrorResult(e);
+            }
+        }
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    // Cambios posteriores a since; si no hay ninguno, el resultado queda pendiente hasta el siguiente cambio o el timeout
+    public DeferredResult<List<TaskChangeDTO>> poll(long since, int limit, long timeoutMillis) {
+        DeferredResult<List<TaskChangeDTO>> result = new DeferredResult<>(timeoutMillis, List.of());
+        synchronized (this) {
+            List<TaskChangeDTO> changes = changesSince(since, limit);
+            if (!changes.isEmpty()) {
+                result.setResult(changes);
+                return result;
+            }
+            Waiter waiter = new Waiter(since, limit, result);
+            waiters.add(waiter);
+            result.onCompletion(() -> removeWaiter(waiter));
+        }
+        return result;
+    }
+
+    // Suscripción SSE; con lastEventId se reenvían primero los cambios que el cliente no recibió
+    public SseEmitter subscribe(Long lastEventId, long timeoutMillis) {
+        return subscribe(new SseEmitter(timeoutMillis), lastEventId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Long lastEventId) {
+        synchronized (this) {
+            List<TaskChangeDTO> backlog = lastEventId != null ? changesSince(lastEventId, Integer.MAX_VALUE) : List.of();
+            Subscriber subscriber = new Subscriber(emitter, backlog, new ArrayBlockingQueue<>(subscriberQueueCapacity));
+            emitter.onCompletion(subscriber::close);
+            emitter.onTimeout(subscriber::close);
+            emitter.onError(error -> subscriber.close());
+            subscribers.add(subscriber);
+            if (!backlog.isEmpty()) {
+                subscriber.scheduleSend();
+            }
+        }
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter().complete());
+    }
+
+    private synchronized List<TaskChangeDTO> changesSince(long since, int limit) {
+        long oldest = Math.max(1, lastSequence - ring.length + 1);
+        if (since < oldest - 1) {
+            throw new ChangesExpiredException("Los cambios posteriores a la secuencia " + since + " ya no están disponibles, vuelva a cargar las tareas");
+        }
+        // La secuencia vive en memoria y vuelve a empezar al reiniciar: una secuencia posterior a la última viene de
+        // otra instancia o de antes del reinicio, y esperar a que se alcance dejaría al cliente sin cambios
+        if (since > lastSequence) {
+            throw new ChangesExpiredException("La secuencia " + since + " no existe en esta instancia (última: " + lastSequence + "), vuelva a cargar las tareas");
+        }
+        List<TaskChangeDTO> changes = new ArrayList<>();
+        for (long sequence = since + 1; sequence <= lastSequence && changes.size() < limit; sequence++) {
+            changes.add(ring[(int) (sequence % ring.length)]);
+        }
+        return changes;
+    }
+
+    private synchronized void removeWaiter(Waiter waiter) {
+        waiters.remove(waiter);
+    }
+
+    // Cambios pendientes de un cliente SSE: primero los que pidió con Last-Event-ID y después, en orden, los
+    // nuevos. Como mucho hay un envío en curso por suscriptor
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private List<TaskChangeDTO> backlog;
+        private final BlockingQueue<TaskChangeDTO> queue;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, List<TaskChangeDTO> backlog, BlockingQueue<TaskChangeDTO> queue) {
+            this.emitter = emitter;
+            this.backlog = backlog;
+            this.queue = queue;
+        }
+
+        SseEmitter emitter() {
+            return emitter;
+        }
+
+        // false si la cola está llena: el cliente no lee al ritmo al que llegan los cambios
+        boolean offer(TaskChangeDTO change) {
+            if (!queue.offer(change)) {
+                return false;
+            }
+            scheduleSend();
+            return true;
+        }
+
+        void scheduleSend() {
+            if (!closed && sending.compareAndSet(false, true)) {
+                sender.execute(this::sendPending);
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+
+        private void sendPending() {
+            try {
+                if (!backlog.isEmpty()) {
+                    List<TaskChangeDTO> changes = backlog;
+                    backlog = List.of();
+                    for (TaskChangeDTO change : changes) {
+                        if (!send(change)) {
+                            return;
+                        }
+                    }
+                }
+                TaskChangeDTO change;
+                while ((change = queue.poll()) != null) {
+                    if (!send(change)) {
+                        return;
+                    }
+                }
+            } finally {
+                sending.set(false);
+            }
+            // Un cambio encolado justo antes de liberar el envío se quedaría sin enviar
+            if (!queue.isEmpty()) {
+                scheduleSend();
+            }
+        }
+
+        private boolean send(TaskChangeDTO change) {
+            if (closed) {
+                return false;
+            }
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(change.getSequence()))
+                        .name(change.getType())
+                        .data(change));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Cliente SSE desconectado: {}", e.getMessage());
+                close();
+                return false;
+            }
+        }
+    }
+}
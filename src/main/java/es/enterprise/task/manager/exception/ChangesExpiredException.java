@@ -0,0 +1,7 @@
+package es.enterprise.task.manager.exception;
+
+public class ChangesExpiredException extends RuntimeException {
+  public ChangesExpiredException(String message) {
+    super(message);
+  }
+}
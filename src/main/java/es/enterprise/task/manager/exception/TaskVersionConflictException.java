@@ -0,0 +1,7 @@
+package es.enterprise.task.manager.exception;
+
+public class TaskVersionConflictException extends RuntimeException {
+  public TaskVersionConflictException(String message) {
+    super(message);
+  }
+}
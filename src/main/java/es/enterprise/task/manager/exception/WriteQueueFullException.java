@@ -0,0 +1,14 @@
+package es.enterprise.task.manager.exception;
+
+public class WriteQueueFullException extends RuntimeException {
+  private final long retryAfterSeconds;
+
+  public WriteQueueFullException(String message, long retryAfterSeconds) {
+    super(message);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
@@ -0,0 +1,223 @@
+package es.enterprise.task.manager.filter;
+
+import es.enterprise.task.manager.idempotency.IdempotencyStore;
+import es.enterprise.task.manager.idempotency.StoredResponse;
+import es.enterprise.task.manager.ratelimit.ClientIdResolver;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+
+// Idempotency-Key en POST /tasks, POST /tasks/async y en /tasks/batch: la primera petición con una clave se procesa y su respuesta
+// se guarda; los reintentos con la misma clave y el mismo cuerpo reciben esa respuesta sin volver a ejecutar
+// la operación, con el mismo estado, cuerpo, Location y ETag. Reutilizar la clave con otro cuerpo da 422, y repetirla
+// mientras la original sigue en curso, 409.
+// Solo se guardan las respuestas 2xx y los 400 de validación, que se repetirían igual: un 429 del limitador, un
+// 409/412 de un conflicto o un 5xx dependen del momento, y el reintento con la misma clave debe ejecutarse de nuevo.
+// Las claves son de cada cliente (la misma identidad que usa el limitador), así que dos clientes que elijan la
+// misma clave no comparten respuestas.
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "task-manager.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Set<String> BATCH_METHODS = Set.of("POST", "PUT", "DELETE");
+
+    private final IdempotencyStore idempotencyStore;
+    private final ClientIdResolver clientIdResolver;
+
+    public IdempotencyFilter(IdempotencyStore idempotencyStore,
+                             @Value("${task-manager.rate-limit.client-header:}") String clientHeader) {
+        this.idempotencyStore = idempotencyStore;
+        this.clientIdResolver = new ClientIdResolver(clientHeader);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (request.getHeader(IDEMPOTENCY_KEY_HEADER) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(("POST".equals(request.getMethod()) && ("/tasks".equals(path) || "/tasks/async".equals(path)))
+                || ("/tasks/batch".equals(path) && BATCH_METHODS.contains(request.getMethod())));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            reject(response, HttpStatus.BAD_REQUEST, "La cabecera Idempotency-Key debe tener entre 1 y " + MAX_KEY_LENGTH + " caracteres");
+            return;
+        }
+        // El cliente y la clave van resumidos en un hash, que cabe en la columna idempotency_key sea cual sea su longitud
+        String key = request.getMethod() + " " + request.getRequestURI() + " "
+                + sha256((clientIdResolver.resolve(request) + "\n" + idempotencyKey).getBytes(StandardCharsets.UTF_8));
+        // El cuerpo se lee entero para compararlo con el de la petición original
+        byte[] requestBody = request.getInputStream().readAllBytes();
+        String requestHash = sha256(requestBody);
+
+        StoredResponse stored = idempotencyStore.find(key);
+        if (stored == null) {
+            if (idempotencyStore.reserve(key, requestHash)) {
+                boolean completed = false;
+                try {
+                    // La petición original pudo terminar entre la consulta y la reserva
+                    stored = idempotencyStore.find(key);
+                    if (stored == null) {
+                        completed = process(new CachedBodyRequest(request, requestBody), response, filterChain, key, requestHash);
+                        return;
+                    }
+                } finally {
+                    if (!completed) {
+                        idempotencyStore.release(key);
+                    }
+                }
+            } else {
+                // La reserva es de otra petición, que puede haber terminado justo ahora
+                stored = idempotencyStore.find(key);
+                if (stored == null) {
+                    response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                    reject(response, HttpStatus.CONFLICT, "Ya hay una petición en curso con esta Idempotency-Key");
+                    return;
+                }
+            }
+        }
+        if (!stored.requestHash().equals(requestHash)) {
+            reject(response, HttpStatus.UNPROCESSABLE_ENTITY, "La Idempotency-Key ya se usó con otra petición");
+            return;
+        }
+        log.debug("Respuesta repetida para la Idempotency-Key {}", idempotencyKey);
+        response.setStatus(stored.status());
+        response.setContentType(stored.contentType());
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+        if (stored.etag() != null) {
+            response.setHeader(HttpHeaders.ETAG, stored.etag());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    // true si la respuesta se guardó; si no, la reserva se libera para que un reintento vuelva a ejecutarse
+    private boolean process(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                            String key, String requestHash) throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            if (!isReplayable(responseWrapper.getStatus())) {
+                return false;
+            }
+            idempotencyStore.complete(key, new StoredResponse(requestHash, responseWrapper.getStatus(),
+                    responseWrapper.getContentType(), responseWrapper.getHeader(HttpHeaders.LOCATION),
+                    responseWrapper.getHeader(HttpHeaders.ETAG), responseWrapper.getContentAsByteArray()));
+            return true;
+        } finally {
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private static boolean isReplayable(int status) {
+        return HttpStatus.valueOf(status).is2xxSuccessful() || status == HttpStatus.BAD_REQUEST.value();
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(message);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Petición cuyo cuerpo ya se ha leído y se sirve desde memoria
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package es.enterprise.task.manager.filter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Una única línea estructurada (clave=valor) por petición en lugar de varias trazas INFO en el servicio.
+// Las respuestas de error se registran siempre; las correctas se muestrean según sample-rate.
+// Las peticiones asíncronas (/stream, /export, /changes) se registran al completarse la respuesta, no al volver el
+// primer dispatch, para que el estado y la duración sean los reales.
+@Component
+@Slf4j
+public class RequestSummaryFilter extends OncePerRequestFilter {
+
+    @Value("${task-manager.logging.request-summary.sample-rate:1.0}")
+    private double sampleRate = 1.0;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        logSummary(request, response, start);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                logSummary(request, response, start);
+            }
+        }
+    }
+
+    private void logSummary(HttpServletRequest request, HttpServletResponse response, long start) {
+        int status = response.getStatus();
+        if (log.isInfoEnabled() && (status >= 400 || sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            log.info("method={} uri={} status={} durationMs={}",
+                    request.getMethod(), request.getRequestURI(), status, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
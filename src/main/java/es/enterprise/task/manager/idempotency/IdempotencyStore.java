@@ -0,0 +1,122 @@
+package es.enterprise.task.manager.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import es.enterprise.task.manager.entity.IdempotencyRecord;
+import es.enterprise.task.manager.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Respuestas por Idempotency-Key en una caché acotada con caducidad (Caffeine) y, si
+// task-manager.idempotency.persistent=true, también en la tabla idempotency_keys.
+// Con la tabla, la reserva de una clave es la inserción de su fila (la clave primaria hace de bloqueo entre
+// instancias); sin ella, una marca en memoria que solo vale para esta instancia.
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private final Duration ttl;
+    private final Duration lockTimeout;
+    private final boolean persistent;
+    private final Cache<String, StoredResponse> responses;
+    // Claves cuya petición original aún se está procesando en esta instancia (sin la tabla)
+    private final Set<String> inProgress = ConcurrentHashMap.newKeySet();
+
+    public IdempotencyStore(@Value("${task-manager.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${task-manager.idempotency.lock-timeout:5m}") Duration lockTimeout,
+                            @Value("${task-manager.idempotency.maximum-size:100000}") long maximumSize,
+                            @Value("${task-manager.idempotency.persistent:false}") boolean persistent) {
+        this.ttl = ttl;
+        this.lockTimeout = lockTimeout;
+        this.persistent = persistent;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public StoredResponse find(String key) {
+        StoredResponse response = responses.getIfPresent(key);
+        if (response == null && persistent) {
+            response = idempotencyRecordRepository.findById(key)
+                    .filter(record -> record.getState() == IdempotencyRecord.State.COMPLETED)
+                    .filter(record -> record.getExpiresAt().isAfter(Instant.now()))
+                    .map(record -> new StoredResponse(record.getRequestHash(), record.getStatus(), record.getContentType(),
+                            record.getLocation(), record.getEtag(), Base64.getDecoder().decode(record.getBody())))
+                    .orElse(null);
+            if (response != null) {
+                responses.put(key, response);
+            }
+        }
+        return response;
+    }
+
+    // false si ya hay una petición en curso con la misma clave, en esta o en otra instancia, o si acaba de terminar.
+    // Una reserva que no se completa ni se libera (la instancia se cayó) caduca tras task-manager.idempotency.lock-timeout
+    public boolean reserve(String key, String requestHash) {
+        if (!persistent) {
+            return inProgress.add(key);
+        }
+        Instant now = Instant.now();
+        idempotencyRecordRepository.deleteIfExpired(key, now);
+        try {
+            idempotencyRecordRepository.insertInProgress(key, requestHash, now.plus(lockTimeout));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    // Guarda la respuesta y da por terminada la reserva. Si la tabla no se puede actualizar, la respuesta se devuelve
+    // igualmente y esta instancia la repite desde memoria, pero en las demás la clave sigue reservada: responden 409
+    // hasta que caduca la reserva y después vuelven a ejecutar la petición
+    public void complete(String key, StoredResponse response) {
+        responses.put(key, response);
+        if (!persistent) {
+            inProgress.remove(key);
+            return;
+        }
+        try {
+            idempotencyRecordRepository.save(new IdempotencyRecord(key, response.requestHash(), IdempotencyRecord.State.COMPLETED,
+                    response.status(), response.contentType(), response.location(), response.etag(),
+                    Base64.getEncoder().encodeToString(response.body()), Instant.now().plus(ttl)));
+        } catch (DataAccessException e) {
+            log.error("No se pudo guardar la respuesta de la Idempotency-Key {}; queda reservada hasta que caduque: {}", key, e.getMessage());
+        }
+    }
+
+    // Libera la reserva de una petición cuya respuesta no se guarda, para que un reintento vuelva a ejecutarla
+    public void release(String key) {
+        if (!persistent) {
+            inProgress.remove(key);
+            return;
+        }
+        try {
+            idempotencyRecordRepository.deleteByKeyAndState(key, IdempotencyRecord.State.IN_PROGRESS);
+        } catch (DataAccessException e) {
+            log.warn("No se pudo liberar la Idempotency-Key {}; queda reservada hasta que caduque: {}", key, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${task-manager.idempotency.purge-interval:1h}")
+    public void purgeExpired() {
+        if (persistent) {
+            int deleted = idempotencyRecordRepository.deleteExpired(Instant.now());
+            log.debug("Eliminadas {} Idempotency-Key caducadas", deleted);
+        }
+    }
+}
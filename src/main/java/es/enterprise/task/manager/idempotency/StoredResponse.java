@@ -0,0 +1,6 @@
+package es.enterprise.task.manager.idempotency;
+
+// Respuesta de una petición con Idempotency-Key, junto con el hash del cuerpo de la petición que la produjo.
+// Location y ETag se guardan con ella: sin Location, un reintento de POST /tasks/async no sabría dónde consultar el estado
+public record StoredResponse(String requestHash, int status, String contentType, String location, String etag, byte[] body) {
+}
@@ -2,6 +2,7 @@ package es.enterprise.task.manager.mapper;
 
 import es.enterprise.task.manager.dto.TaskDTO;
 import es.enterprise.task.manager.entity.Task;
+import es.enterprise.task.manager.entity.TaskStatus;
 
 public class TaskMapper {
     public static Task toEntity(TaskDTO dto) {
@@ -9,7 +10,7 @@ public class TaskMapper {
         task.setId(dto.getId());
         task.setTitle(dto.getTitle());
         task.setDescription(dto.getDescription());
-        task.setStatus(dto.getStatus());
+        task.setStatus(toStatus(dto.getStatus()));
         return task;
     }
 
@@ -18,7 +19,13 @@ public class TaskMapper {
         dto.setId(task.getId());
         dto.setTitle(task.getTitle());
         dto.setDescription(task.getDescription());
-        dto.setStatus(task.getStatus());
+        dto.setStatus(task.getStatus() != null ? task.getStatus().getValue() : null);
+        dto.setVersion(task.getVersion());
         return dto;
     }
+
+    // Las tareas sin estado se crean como pendientes
+    public static TaskStatus toStatus(String status) {
+        return status == null ? TaskStatus.PENDING : TaskStatus.fromValue(status);
+    }
 }
@@ -0,0 +1,71 @@
+package es.enterprise.task.manager.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Límite de peticiones en curso que se adapta a la latencia (AIMD): si una petición tarda más que la latencia
+// objetivo el límite baja un 10 %, y mientras la latencia es buena y el límite se está usando sube poco a poco.
+// Así, cuando la base de datos se ralentiza se rechazan peticiones enseguida en lugar de encolarlas.
+final class AdaptiveConcurrencyLimiter {
+
+    private static final double DECREASE_FACTOR = 0.9;
+    // Peso de cada muestra en la media móvil exponencial de la latencia
+    private static final double LATENCY_WEIGHT = 0.1;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private volatile double averageLatencyNanos;
+
+    AdaptiveConcurrencyLimiter(int minLimit, int maxLimit, long targetLatencyNanos) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.limit = this.maxLimit;
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // latencyNanos < 0: la petición no aporta una muestra de latencia (p. ej. respuestas asíncronas de larga duración)
+    void release(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        if (latencyNanos < 0) {
+            return;
+        }
+        synchronized (this) {
+            averageLatencyNanos = averageLatencyNanos == 0
+                    ? latencyNanos
+                    : averageLatencyNanos + LATENCY_WEIGHT * (latencyNanos - averageLatencyNanos);
+            if (latencyNanos > targetLatencyNanos) {
+                limit = Math.max(minLimit, limit * DECREASE_FACTOR);
+            } else if (current >= limit / 2) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    // Tiempo estimado hasta que quede libre un hueco: la latencia media de las peticiones (o la objetivo, sin muestras)
+    long estimatedWaitNanos() {
+        double average = averageLatencyNanos;
+        return average > 0 ? (long) average : targetLatencyNanos;
+    }
+}
@@ -0,0 +1,26 @@
+package es.enterprise.task.manager.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+// Identidad del cliente que hace la petición: el valor de la cabecera task-manager.rate-limit.client-header si está
+// configurada y presente o, si no, su IP. Detrás del proxy de producción es la de X-Forwarded-For, que Tomcat pone
+// como dirección remota con server.forward-headers-strategy=native.
+// La usan el límite por cliente (RateLimitInterceptor) y el ámbito de las Idempotency-Key (IdempotencyFilter).
+public final class ClientIdResolver {
+
+    private final String clientHeader;
+
+    public ClientIdResolver(String clientHeader) {
+        this.clientHeader = clientHeader;
+    }
+
+    public String resolve(HttpServletRequest request) {
+        if (clientHeader != null && !clientHeader.isBlank()) {
+            String value = request.getHeader(clientHeader);
+            if (value != null && !value.isBlank()) {
+                return value;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
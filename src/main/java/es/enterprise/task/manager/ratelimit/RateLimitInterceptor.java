@@ -0,0 +1,169 @@
+package es.enterprise.task.manager.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import es.enterprise.task.manager.exception.ConcurrencyLimitExceededException;
+import es.enterprise.task.manager.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Rechaza las peticiones antes de llegar al controlador cuando se supera el límite de peticiones por segundo
+// (global o por cliente, 429) o el límite adaptativo de peticiones en curso (503), en ambos casos con Retry-After.
+@Slf4j
+public class RateLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".permit";
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ClientIdResolver clientIdResolver;
+    private final Map<RouteKey, RouteLimiter> limiters = new ConcurrentHashMap<>();
+
+    public RateLimitInterceptor(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clientIdResolver = new ClientIdResolver(properties.getClientHeader());
+    }
+
+    private record Permit(RouteLimiter limiter, long startNanos) {
+    }
+
+    // El método del controlador identifica la ruta (con su clase, así dos controladores con un método del mismo
+    // nombre no comparten límites), y cada petición se clasifica como lectura o escritura por su método HTTP
+    private record RouteKey(Method method, boolean read) {
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // En el redespacho de una respuesta asíncrona la petición ya se admitió
+        if (!(handler instanceof HandlerMethod handlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        RouteLimiter limiter = limiters.computeIfAbsent(new RouteKey(handlerMethod.getMethod(), read), RouteLimiter::new);
+        limiter.acquire(clientIdResolver.resolve(request));
+        request.setAttribute(PERMIT_ATTRIBUTE, new Permit(limiter, System.nanoTime()));
+        return true;
+    }
+
+    // Long-poll, SSE y streaming: el hilo de la petición queda libre, así que también el permiso de concurrencia
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Permit permit) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permit.limiter().release(-1);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Permit permit) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permit.limiter().release(System.nanoTime() - permit.startNanos());
+        }
+    }
+
+    // Retry-After en segundos enteros, redondeando hacia arriba el tiempo que falta para que haya un token o un hueco
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+
+    // Cubos y límite de concurrencia de una ruta, con sus métricas
+    private final class RouteLimiter {
+
+        private final String route;
+        private final String access;
+        private final TokenBucket bucket;
+        private final Cache<String, TokenBucket> clientBuckets;
+        private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+        private final double clientRate;
+        private final int clientBurst;
+        private final Counter rateRejections;
+        private final Counter clientRateRejections;
+        private final Counter concurrencyRejections;
+
+        RouteLimiter(RouteKey key) {
+            Method method = key.method();
+            this.route = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+            this.access = key.read() ? "read" : "write";
+            RateLimitProperties.Limits defaults = key.read() ? properties.getRead() : properties.getWrite();
+            RateLimitProperties.Limits limits = properties.getRoutes().getOrDefault(method.getName(), defaults).withDefaults(defaults);
+            this.bucket = limits.getRate() > 0 ? new TokenBucket(limits.getRate(), limits.getBurst()) : null;
+            this.clientRate = limits.getClientRate();
+            this.clientBurst = limits.getClientBurst();
+            this.clientBuckets = clientRate > 0
+                    ? Caffeine.newBuilder()
+                    .expireAfterAccess(properties.getClientIdleTimeout())
+                    .maximumSize(properties.getMaxClients())
+                    .build()
+                    : null;
+            this.concurrencyLimiter = limits.getMaxConcurrency() > 0
+                    ? new AdaptiveConcurrencyLimiter(limits.getMinConcurrency(), limits.getMaxConcurrency(), limits.getTargetLatency().toNanos())
+                    : null;
+            this.rateRejections = rejections("rate");
+            this.clientRateRejections = rejections("client-rate");
+            this.concurrencyRejections = rejections("concurrency");
+            if (concurrencyLimiter != null) {
+                Gauge.builder("task.ratelimit.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                        .tag("route", route)
+                        .tag("access", access)
+                        .register(meterRegistry);
+                Gauge.builder("task.ratelimit.concurrency.in-flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                        .tag("route", route)
+                        .tag("access", access)
+                        .register(meterRegistry);
+            }
+            log.debug("Límites de la ruta {} ({}): {}", route, access, limits);
+        }
+
+        void acquire(String client) {
+            // Primero el cubo del cliente, para que un cliente que abusa no gaste tokens del cubo global
+            if (clientBuckets != null) {
+                long wait = clientBuckets.get(client, key -> new TokenBucket(clientRate, clientBurst)).tryConsume();
+                if (wait > 0) {
+                    clientRateRejections.increment();
+                    throw new RateLimitExceededException("Límite de peticiones por cliente superado en " + route, retryAfterSeconds(wait));
+                }
+            }
+            if (bucket != null) {
+                long wait = bucket.tryConsume();
+                if (wait > 0) {
+                    rateRejections.increment();
+                    throw new RateLimitExceededException("Límite de peticiones superado en " + route, retryAfterSeconds(wait));
+                }
+            }
+            if (concurrencyLimiter != null && !concurrencyLimiter.tryAcquire()) {
+                concurrencyRejections.increment();
+                throw new ConcurrencyLimitExceededException("Demasiadas peticiones en curso en " + route,
+                        retryAfterSeconds(concurrencyLimiter.estimatedWaitNanos()));
+            }
+        }
+
+        void release(long latencyNanos) {
+            if (concurrencyLimiter != null) {
+                concurrencyLimiter.release(latencyNanos);
+            }
+        }
+
+        private Counter rejections(String reason) {
+            return Counter.builder("task.ratelimit.rejections")
+                    .tag("route", route)
+                    .tag("access", access)
+                    .tag("reason", reason)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package es.enterprise.task.manager.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Límites de task-manager.rate-limit. Cada método de controlador (p. ej. TaskController.createTask) tiene sus
+// propios cubos y su propio límite de concurrencia, de forma que las escrituras no agotan el presupuesto de las
+// lecturas. Los valores de routes.<método> sustituyen a los de read (GET y HEAD) o write (resto) según el método
+// HTTP de cada petición.
+@Data
+@ConfigurationProperties(prefix = "task-manager.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Cabecera que identifica al cliente (p. ej. X-API-Key); si está vacía o no llega se usa la IP remota
+    private String clientHeader;
+
+    // Los cubos de un cliente sin peticiones durante este tiempo se descartan
+    private Duration clientIdleTimeout = Duration.ofMinutes(10);
+
+    private long maxClients = 100_000;
+
+    private Limits read = new Limits(2000.0, 4000, 100.0, 200, 10, 200, Duration.ofMillis(100));
+
+    private Limits write = new Limits(500.0, 1000, 20.0, 40, 5, 50, Duration.ofMillis(250));
+
+    private Map<String, Limits> routes = new HashMap<>();
+
+    // Un valor a null se toma de read/write; rate y client-rate a 0 o max-concurrency a 0 desactivan ese límite
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Limits {
+        private Double rate; // Peticiones por segundo de todos los clientes juntos
+
+        private Integer burst;
+
+        private Double clientRate; // Peticiones por segundo de cada cliente
+
+        private Integer clientBurst;
+
+        private Integer minConcurrency;
+
+        private Integer maxConcurrency;
+
+        private Duration targetLatency; // Latencia por encima de la cual se reduce el límite de concurrencia
+
+        Limits withDefaults(Limits defaults) {
+            return new Limits(
+                    rate != null ? rate : defaults.rate,
+                    burst != null ? burst : defaults.burst,
+                    clientRate != null ? clientRate : defaults.clientRate,
+                    clientBurst != null ? clientBurst : defaults.clientBurst,
+                    minConcurrency != null ? minConcurrency : defaults.minConcurrency,
+                    maxConcurrency != null ? maxConcurrency : defaults.maxConcurrency,
+                    targetLatency != null ? targetLatency : defaults.targetLatency);
+        }
+    }
+}
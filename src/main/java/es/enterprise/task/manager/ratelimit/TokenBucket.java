@@ -0,0 +1,37 @@
+package es.enterprise.task.manager.ratelimit;
+
+import java.util.function.LongSupplier;
+
+// Cubo de tokens: admite ráfagas de hasta capacity peticiones y se rellena a rate tokens por segundo
+final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final LongSupplier nanoClock;
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(double rate, int capacity) {
+        this(rate, capacity, System::nanoTime);
+    }
+
+    TokenBucket(double rate, int capacity, LongSupplier nanoClock) {
+        this.capacity = Math.max(1, capacity);
+        this.tokensPerNano = rate / 1_000_000_000.0;
+        this.nanoClock = nanoClock;
+        this.tokens = this.capacity;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    // Consume un token y devuelve 0, o los nanosegundos que faltan para que haya uno disponible
+    synchronized long tryConsume() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+}
@@ -0,0 +1,43 @@
+package es.enterprise.task.manager.repository;
+
+import es.enterprise.task.manager.entity.IdempotencyRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Borrado de las claves caducadas en una sola sentencia
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(Instant now);
+
+    // Reserva de una clave: falla con DataIntegrityViolationException si otra petición ya tiene la fila
+    @Transactional
+    @Modifying
+    @Query(value = "insert into idempotency_keys (idempotency_key, request_hash, state, status, expires_at) "
+            + "values (:key, :requestHash, 'IN_PROGRESS', 0, :expiresAt)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    int insertInProgress(String key, String requestHash, Instant expiresAt);
+
+    // Libera la fila de una clave caducada (respuesta antigua o reserva de una instancia que no terminó)
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.key = :key and r.expiresAt < :now")
+    int deleteIfExpired(String key, Instant now);
+
+    // Abandona una reserva sin tocar la fila si la petición ya se completó
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.key = :key and r.state = :state")
+    int deleteByKeyAndState(String key, IdempotencyRecord.State state);
+}
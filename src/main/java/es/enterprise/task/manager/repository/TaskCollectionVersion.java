@@ -0,0 +1,7 @@
+package es.enterprise.task.manager.repository;
+
+// Resumen barato de la tabla de tareas que cambia con cualquier alta, modificación o borrado:
+// las altas suben maxId (la secuencia es creciente), los borrados bajan count y cada
+// modificación incrementa la versión de una fila y, por tanto, versionSum
+public record TaskCollectionVersion(Long count, Long maxId, Long versionSum) {
+}
@@ -0,0 +1,7 @@
+package es.enterprise.task.manager.repository;
+
+import es.enterprise.task.manager.entity.TaskStatus;
+
+// ID y estado de una tarea, leídos sin hidratar la entidad
+public record TaskIdStatus(Long id, TaskStatus status) {
+}
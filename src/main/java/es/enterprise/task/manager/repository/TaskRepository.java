@@ -1,13 +1,131 @@
 package es.enterprise.task.manager.repository;
 
+import es.enterprise.task.manager.dto.TaskDTO;
 import es.enterprise.task.manager.entity.Task;
+import es.enterprise.task.manager.entity.TaskStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
-    List<Task> findByStatus(String status);
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
+    // Las lecturas construyen TaskDTO directamente en la consulta: no se crean entidades gestionadas,
+    // ni snapshots para el dirty checking, ni hace falta copiarlas con TaskMapper
+    String TASK_DTO = "new es.enterprise.task.manager.dto.TaskDTO(t.id, t.title, t.description, t.status, t.version)";
+    // Región de la caché de consultas de Hibernate (ver application.conf). Un resultado cacheado deja de usarse en
+    // cuanto se confirma cualquier escritura en la tabla tasks, incluidas las actualizaciones masivas
+    String QUERY_CACHE_REGION = "task-queries";
 
+    @Query("select " + TASK_DTO + " from Task t order by t.id")
+    List<TaskDTO> findAllDTOs();
+
+    @Query("select " + TASK_DTO + " from Task t where t.id = :id")
+    Optional<TaskDTO> findDTOById(Long id);
+
+    @Query("select " + TASK_DTO + " from Task t where t.id in :ids")
+    List<TaskDTO> findDTOsByIds(Collection<Long> ids);
+
+    // Consulta paginada por estado; recorre el rango del índice (status, id)
+    @Query(value = "select " + TASK_DTO + " from Task t where t.status = :status",
+            countQuery = "select count(t) from Task t where t.status = :status")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)})
+    Page<TaskDTO> findDTOsByStatus(TaskStatus status, Pageable pageable);
+
+    // Paginación keyset: siguiente bloque de tareas a partir del último ID devuelto
+    @Query("select " + TASK_DTO + " from Task t where t.id > :id order by t.id")
+    List<TaskDTO> findDTOsAfter(Long id, Limit limit);
+
+    @Query("select " + TASK_DTO + " from Task t where t.status = :status and t.id > :id order by t.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)})
+    List<TaskDTO> findDTOsByStatusAfter(TaskStatus status, Long id, Limit limit);
+
+    // Cursor sobre toda la tabla; debe consumirse dentro de una transacción
+    @Query("select " + TASK_DTO + " from Task t order by t.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<TaskDTO> streamAllDTOs();
+
+    // Versión agregada de la colección, para responder 304 sin cargar ni serializar las filas
+    @Query("select new es.enterprise.task.manager.repository.TaskCollectionVersion(count(t), coalesce(max(t.id), 0L), coalesce(sum(t.version), 0L)) from Task t")
+    TaskCollectionVersion findCollectionVersion();
+
+    // Cambio de estado en una única sentencia, sin cargar la entidad. Solo cambia la fila si el estado es otro, así que
+    // una fila afectada indica la transición desde el otro estado; con 0 la tarea no existe o ya tenía ese estado
+    @Modifying
+    @Query("update Task t set t.status = :status, t.version = t.version + 1, t.updatedAt = :now "
+            + "where t.id = :id and t.deletedAt is null and t.status <> :status")
+    int updateStatus(Long id, TaskStatus status, Instant now);
+
+    default int updateStatus(Long id, TaskStatus status) {
+        return updateStatus(id, status, Instant.now());
+    }
+
+    // Borrado en una única sentencia: el número de filas afectadas indica si la tarea existía
+    @Modifying
+    @Query("delete from Task t where t.id = :id and t.deletedAt is null")
+    int deleteTaskById(Long id);
+
+    // Borrado lógico en una única sentencia; la tarea deja de aparecer en las consultas
+    @Modifying
+    @Query("update Task t set t.deletedAt = :now, t.updatedAt = :now, t.version = t.version + 1 where t.id = :id and t.deletedAt is null")
+    int softDeleteById(Long id, Instant now);
+
+    @Modifying
+    @Query("update Task t set t.deletedAt = :now, t.updatedAt = :now, t.version = t.version + 1 where t.id in :ids and t.deletedAt is null")
+    int softDeleteByIds(Collection<Long> ids, Instant now);
+
+    // Estado actual de una tarea, sin cargar la entidad; vacío si no existe
+    @Query("select t.status from Task t where t.id = :id")
+    Optional<TaskStatus> findStatusById(Long id);
+
+    // ID y estado de las tareas que existen de entre las indicadas, sin cargar las entidades
+    @Query("select new es.enterprise.task.manager.repository.TaskIdStatus(t.id, t.status) from Task t where t.id in :ids")
+    List<TaskIdStatus> findStatusesByIds(Collection<Long> ids);
+
+    // Retención (TaskRetentionJob). Consultas nativas: deben ver también las tareas borradas lógicamente, que
+    // @SQLRestriction oculta. Las que modifican indican la tabla afectada para que Hibernate solo invalide la
+    // caché de segundo nivel de esa tabla
+
+    // IDs de tareas terminadas (status = código de DONE) sin modificar desde cutoff. Las filas quedan bloqueadas
+    // hasta el final de la transacción del bloque, y las que está usando otra transacción se saltan sin esperar
+    @Query(value = "select id from tasks where status = :doneCode and deleted_at is null and updated_at < :cutoff "
+            + "order by id limit :limit for update skip locked", nativeQuery = true)
+    List<Long> findDoneIdsUpdatedBefore(short doneCode, Instant cutoff, int limit);
+
+    // IDs de tareas borradas lógicamente antes de cutoff
+    @Query(value = "select id from tasks where deleted_at < :cutoff order by id limit :limit for update skip locked",
+            nativeQuery = true)
+    List<Long> findIdsDeletedBefore(Instant cutoff, int limit);
+
+    @Modifying
+    @Query(value = "insert into tasks_archive (id, title, description, status, version, updated_at, deleted_at, archived_at) "
+            + "select id, title, description, status, version, updated_at, deleted_at, :now from tasks where id in :ids",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tasks_archive"))
+    int archiveByIds(Collection<Long> ids, Instant now);
+
+    @Modifying
+    @Query(value = "delete from tasks where id in :ids", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tasks"))
+    int purgeByIds(Collection<Long> ids);
+
+    // Número de tareas por estado con un único GROUP BY sobre el índice (status, id)
+    @Query("select new es.enterprise.task.manager.repository.TaskStatusCount(t.status, count(t)) from Task t group by t.status")
+    List<TaskStatusCount> countByStatus();
 }
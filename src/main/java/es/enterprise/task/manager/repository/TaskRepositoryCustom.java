@@ -0,0 +1,26 @@
+package es.enterprise.task.manager.repository;
+
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.entity.TaskStatus;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public interface TaskRepositoryCustom {
+
+    // UPDATE de solo los campos indicados (y la versión); devuelve el número de filas afectadas. Si se cambia el
+    // estado, solo se actualiza la fila si tenía otro, como en updateStatus
+    int patch(Long id, Map<String, Object> changes, Long expectedVersion);
+
+    // Borrado en una única sentencia que devuelve el estado de la fila borrada; vacío si la tarea no existía
+    Optional<TaskStatus> deleteReturningStatus(Long id);
+
+    // Igual que deleteReturningStatus, pero con borrado lógico
+    Optional<TaskStatus> softDeleteReturningStatus(Long id, Instant now);
+
+    // Página keyset que solo lee las columnas indicadas (el ID siempre); el resto de campos quedan a null
+    List<TaskDTO> findFieldsAfter(Set<String> fields, TaskStatus status, Long afterId, int limit);
+}
@@ -0,0 +1,181 @@
+package es.enterprise.task.manager.repository;
+
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.dto.TaskFieldsDTO;
+import es.enterprise.task.manager.entity.Task;
+import es.enterprise.task.manager.entity.TaskStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.SessionFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("title", "description", "status");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int patch(Long id, Map<String, Object> changes, Long expectedVersion) {
+        StringBuilder jpql = new StringBuilder("update Task t set t.version = t.version + 1, t.updatedAt = :updatedAt");
+        for (String field : changes.keySet()) {
+            // Los nombres de campo no vienen del cliente sin validar: solo se admiten los de la lista
+            if (!PATCHABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Campo no modificable: " + field);
+            }
+            jpql.append(", t.").append(field).append(" = :").append(field);
+        }
+        jpql.append(" where t.id = :id and t.deletedAt is null");
+        if (changes.containsKey("status")) {
+            jpql.append(" and t.status <> :status");
+        }
+        if (expectedVersion != null) {
+            jpql.append(" and t.version = :expectedVersion");
+        }
+        Query query = entityManager.createQuery(jpql.toString());
+        changes.forEach(query::setParameter);
+        query.setParameter("id", id);
+        query.setParameter("updatedAt", Instant.now());
+        if (expectedVersion != null) {
+            query.setParameter("expectedVersion", expectedVersion);
+        }
+        return query.executeUpdate();
+    }
+
+    @Override
+    public Optional<TaskStatus> deleteReturningStatus(Long id) {
+        Dialect dialect = dialect();
+        String sql;
+        if (dialect instanceof PostgreSQLDialect) {
+            sql = "delete from tasks where id = :id and deleted_at is null returning status";
+        } else if (dialect instanceof H2Dialect) {
+            sql = "select status from old table (delete from tasks where id = :id and deleted_at is null)";
+        } else {
+            // Sin RETURNING: se lee el estado y se borra en dos sentencias
+            Optional<TaskStatus> status = findStatus(id);
+            status.ifPresent(found -> entityManager.createQuery("delete from Task t where t.id = :id and t.deletedAt is null")
+                    .setParameter("id", id)
+                    .executeUpdate());
+            return status;
+        }
+        return executeReturningStatus(entityManager.createNativeQuery(sql).setParameter("id", id), id);
+    }
+
+    @Override
+    public Optional<TaskStatus> softDeleteReturningStatus(Long id, Instant now) {
+        String update = "update tasks set deleted_at = :now, updated_at = :now, version = version + 1 "
+                + "where id = :id and deleted_at is null";
+        Dialect dialect = dialect();
+        String sql;
+        if (dialect instanceof PostgreSQLDialect) {
+            sql = update + " returning status";
+        } else if (dialect instanceof H2Dialect) {
+            sql = "select status from final table (" + update + ")";
+        } else {
+            Optional<TaskStatus> status = findStatus(id);
+            status.ifPresent(found -> entityManager.createQuery("update Task t set t.deletedAt = :now, t.updatedAt = :now, "
+                            + "t.version = t.version + 1 where t.id = :id and t.deletedAt is null")
+                    .setParameter("id", id)
+                    .setParameter("now", now)
+                    .executeUpdate());
+            return status;
+        }
+        return executeReturningStatus(entityManager.createNativeQuery(sql).setParameter("id", id).setParameter("now", now), id);
+    }
+
+    // Una sentencia con RETURNING se ejecuta como consulta, así que Hibernate no invalida la caché de segundo nivel
+    // ni la de consultas como en un UPDATE/DELETE: se hace aquí, y otra vez al terminar la transacción para que una
+    // lectura concurrente no deje en caché la fila anterior al commit
+    private Optional<TaskStatus> executeReturningStatus(Query query, Long id) {
+        List<?> rows = query.getResultList();
+        EntityManagerFactory entityManagerFactory = entityManager.getEntityManagerFactory();
+        Runnable evict = () -> {
+            entityManagerFactory.getCache().evict(Task.class, id);
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion(TaskRepository.QUERY_CACHE_REGION);
+        };
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict.run();
+                }
+            });
+        }
+        return rows.stream().findFirst().map(code -> TaskStatus.fromCode(((Number) code).shortValue()));
+    }
+
+    private Optional<TaskStatus> findStatus(Long id) {
+        return entityManager.createQuery("select t.status from Task t where t.id = :id", TaskStatus.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst();
+    }
+
+    private Dialect dialect() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    @Override
+    public List<TaskDTO> findFieldsAfter(Set<String> fields, TaskStatus status, Long afterId, int limit) {
+        Set<String> columns = new LinkedHashSet<>();
+        columns.add("id"); // Necesario para el cursor de la siguiente página
+        for (String field : fields) {
+            if (!TaskFieldsDTO.SELECTABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Campo no seleccionable: " + field);
+            }
+            columns.add(field);
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Task> task = query.from(Task.class);
+        List<Selection<?>> selections = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            selections.add(task.get(column).alias(column));
+        }
+        Predicate after = cb.greaterThan(task.get("id"), afterId);
+        query.multiselect(selections)
+                .where(status == null ? after : cb.and(cb.equal(task.get("status"), status), after))
+                .orderBy(cb.asc(task.get("id")));
+        List<Tuple> rows = entityManager.createQuery(query).setMaxResults(limit).getResultList();
+        List<TaskDTO> tasks = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            TaskDTO taskDTO = new TaskDTO();
+            for (String column : columns) {
+                Object value = row.get(column);
+                switch (column) {
+                    case "id" -> taskDTO.setId((Long) value);
+                    case "title" -> taskDTO.setTitle((String) value);
+                    case "description" -> taskDTO.setDescription((String) value);
+                    case "status" -> taskDTO.setStatus(((TaskStatus) value).getValue());
+                    case "version" -> taskDTO.setVersion((Long) value);
+                    default -> throw new IllegalStateException("Campo no seleccionable: " + column);
+                }
+            }
+            tasks.add(taskDTO);
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,7 @@
+package es.enterprise.task.manager.repository;
+
+import es.enterprise.task.manager.entity.TaskStatus;
+
+// Fila del recuento de tareas agrupado por estado
+public record TaskStatusCount(TaskStatus status, Long count) {
+}
@@ -0,0 +1,581 @@
+package es.enterprise.task.manager.repository.memory;
+
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.dto.TaskFieldsDTO;
+import es.enterprise.task.manager.entity.Task;
+import es.enterprise.task.manager.entity.TaskStatus;
+import es.enterprise.task.manager.repository.TaskCollectionVersion;
+import es.enterprise.task.manager.repository.TaskIdStatus;
+import es.enterprise.task.manager.repository.TaskRepository;
+import es.enterprise.task.manager.repository.TaskStatusCount;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// TaskRepository sobre InMemoryTaskStore (task-manager.storage.mode=memory). Es el bean principal, así que
+// TaskService, las estadísticas, el índice de búsqueda y la exportación lo usan sin cambios en lugar del
+// repositorio JPA. Reproduce el comportamiento de JPA que usa la aplicación: IDs asignados en el alta, bloqueo
+// optimista por versión, versión sin cambios si la tarea no cambia y los límites de longitud de las columnas.
+// Sin base de datos no hay borrado lógico ni tabla de archivo: el arranque falla si se activa
+// task-manager.soft-delete.enabled o la retención con mode=archive, en lugar de fallar en cada ejecución o borrar
+// tareas que debían conservarse. Las consultas por ejemplo de JpaRepository no las usa la aplicación y no existen aquí.
+@Repository
+@Primary
+@ConditionalOnProperty(name = "task-manager.storage.mode", havingValue = "memory")
+public class InMemoryTaskRepository implements TaskRepository {
+
+    private static final int TITLE_LENGTH = 100;
+    private static final int DESCRIPTION_LENGTH = 500;
+    private static final int STREAM_PAGE_SIZE = 500;
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("title", "description", "status");
+
+    private final InMemoryTaskStore store;
+
+    public InMemoryTaskRepository(InMemoryTaskStore store,
+                                  @Value("${task-manager.soft-delete.enabled:false}") boolean softDelete,
+                                  @Value("${task-manager.retention.enabled:false}") boolean retention,
+                                  @Value("${task-manager.retention.mode:archive}") String retentionMode) {
+        if (softDelete) {
+            throw new IllegalArgumentException("El almacenamiento en memoria no admite borrado lógico: desactiva task-manager.soft-delete.enabled");
+        }
+        if (retention && !"purge".equals(retentionMode)) {
+            throw new IllegalArgumentException("El almacenamiento en memoria no tiene tabla de archivo: usa task-manager.retention.mode=purge");
+        }
+        this.store = store;
+    }
+
+    // --- Consultas de TaskRepository ---
+
+    @Override
+    public List<TaskDTO> findAllDTOs() {
+        return toDTOs(store.after(null, 0, Integer.MAX_VALUE, null));
+    }
+
+    @Override
+    public Optional<TaskDTO> findDTOById(Long id) {
+        return Optional.ofNullable(find(id)).map(MemoryTask::toDTO);
+    }
+
+    @Override
+    public List<TaskDTO> findDTOsByIds(Collection<Long> ids) {
+        return toDTOs(store.getAll(ids));
+    }
+
+    @Override
+    public Page<TaskDTO> findDTOsByStatus(TaskStatus status, Pageable pageable) {
+        return toDTOPage(status, pageable);
+    }
+
+    @Override
+    public List<TaskDTO> findDTOsAfter(Long id, Limit limit) {
+        return toDTOs(store.after(null, id, max(limit), null));
+    }
+
+    @Override
+    public List<TaskDTO> findDTOsByStatusAfter(TaskStatus status, Long id, Limit limit) {
+        return toDTOs(store.after(status, id, max(limit), null));
+    }
+
+    // Se recorre por páginas de ID, sin copiar todas las tareas de golpe
+    @Override
+    public Stream<TaskDTO> streamAllDTOs() {
+        Spliterator<TaskDTO> pages = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private List<MemoryTask> page = List.of();
+            private int position;
+            private long lastId;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super TaskDTO> action) {
+                if (position == page.size()) {
+                    page = store.after(null, lastId, STREAM_PAGE_SIZE, null);
+                    position = 0;
+                    if (page.isEmpty()) {
+                        return false;
+                    }
+                }
+                MemoryTask task = page.get(position++);
+                lastId = task.id();
+                action.accept(task.toDTO());
+                return true;
+            }
+        };
+        return StreamSupport.stream(pages, false);
+    }
+
+    @Override
+    public TaskCollectionVersion findCollectionVersion() {
+        return store.collectionVersion();
+    }
+
+    @Override
+    public int updateStatus(Long id, TaskStatus status, Instant now) {
+        return store.write(writer -> {
+            MemoryTask current = id != null ? writer.get(id) : null;
+            if (current == null || current.status() == status) {
+                return 0;
+            }
+            writer.put(new MemoryTask(current.id(), current.title(), current.description(), status, current.version() + 1,
+                    now.toEpochMilli()));
+            return 1;
+        });
+    }
+
+    @Override
+    public int deleteTaskById(Long id) {
+        return id != null && store.write(writer -> writer.delete(id)) ? 1 : 0;
+    }
+
+    @Override
+    public Optional<TaskStatus> deleteReturningStatus(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return store.write(writer -> {
+            MemoryTask current = writer.get(id);
+            if (current == null) {
+                return Optional.empty();
+            }
+            writer.delete(id);
+            return Optional.of(current.status());
+        });
+    }
+
+    @Override
+    public Optional<TaskStatus> softDeleteReturningStatus(Long id, Instant now) {
+        throw softDeleteUnsupported();
+    }
+
+    @Override
+    public int softDeleteById(Long id, Instant now) {
+        throw softDeleteUnsupported();
+    }
+
+    @Override
+    public int softDeleteByIds(Collection<Long> ids, Instant now) {
+        throw softDeleteUnsupported();
+    }
+
+    @Override
+    public Optional<TaskStatus> findStatusById(Long id) {
+        return Optional.ofNullable(find(id)).map(MemoryTask::status);
+    }
+
+    @Override
+    public List<TaskIdStatus> findStatusesByIds(Collection<Long> ids) {
+        return store.getAll(ids).stream().map(task -> new TaskIdStatus(task.id(), task.status())).toList();
+    }
+
+    @Override
+    public List<Long> findDoneIdsUpdatedBefore(short doneCode, Instant cutoff, int limit) {
+        long cutoffMillis = cutoff.toEpochMilli();
+        return store.after(TaskStatus.fromCode(doneCode), 0, limit, task -> task.updatedAt() < cutoffMillis)
+                .stream().map(MemoryTask::id).toList();
+    }
+
+    @Override
+    public List<Long> findIdsDeletedBefore(Instant cutoff, int limit) {
+        return List.of(); // Sin borrado lógico no hay tareas borradas pendientes de retención
+    }
+
+    @Override
+    public int archiveByIds(Collection<Long> ids, Instant now) {
+        throw new UnsupportedOperationException("El almacenamiento en memoria no tiene tabla de archivo: usa task-manager.retention.mode=purge");
+    }
+
+    @Override
+    public int purgeByIds(Collection<Long> ids) {
+        return deleteIds(ids);
+    }
+
+    @Override
+    public List<TaskStatusCount> countByStatus() {
+        List<TaskStatusCount> counts = new ArrayList<>();
+        for (TaskStatus status : TaskStatus.values()) {
+            long count = store.count(status);
+            if (count > 0) {
+                counts.add(new TaskStatusCount(status, count));
+            }
+        }
+        return counts;
+    }
+
+    // --- TaskRepositoryCustom ---
+
+    @Override
+    public int patch(Long id, Map<String, Object> changes, Long expectedVersion) {
+        for (String field : changes.keySet()) {
+            if (!PATCHABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Campo no modificable: " + field);
+            }
+        }
+        long now = System.currentTimeMillis();
+        return store.write(writer -> {
+            MemoryTask current = id != null ? writer.get(id) : null;
+            if (current == null || (expectedVersion != null && current.version() != expectedVersion)
+                    || (changes.containsKey("status") && changes.get("status") == current.status())) {
+                return 0;
+            }
+            String title = changes.containsKey("title") ? (String) changes.get("title") : current.title();
+            String description = changes.containsKey("description") ? (String) changes.get("description") : current.description();
+            TaskStatus status = changes.containsKey("status") ? (TaskStatus) changes.get("status") : current.status();
+            checkConstraints(title, description, status);
+            writer.put(new MemoryTask(current.id(), title, description, status, current.version() + 1, now));
+            return 1;
+        });
+    }
+
+    @Override
+    public List<TaskDTO> findFieldsAfter(Set<String> fields, TaskStatus status, Long afterId, int limit) {
+        Set<String> columns = new LinkedHashSet<>();
+        columns.add("id");
+        for (String field : fields) {
+            if (!TaskFieldsDTO.SELECTABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Campo no seleccionable: " + field);
+            }
+            columns.add(field);
+        }
+        List<MemoryTask> rows = store.after(status, afterId, limit, null);
+        List<TaskDTO> tasks = new ArrayList<>(rows.size());
+        for (MemoryTask row : rows) {
+            TaskDTO taskDTO = new TaskDTO();
+            for (String column : columns) {
+                switch (column) {
+                    case "id" -> taskDTO.setId(row.id());
+                    case "title" -> taskDTO.setTitle(row.title());
+                    case "description" -> taskDTO.setDescription(row.description());
+                    case "status" -> taskDTO.setStatus(row.status().getValue());
+                    case "version" -> taskDTO.setVersion(row.version());
+                    default -> throw new IllegalStateException("Campo no seleccionable: " + column);
+                }
+            }
+            tasks.add(taskDTO);
+        }
+        return tasks;
+    }
+
+    // --- CrudRepository / JpaRepository ---
+
+    @Override
+    public <S extends Task> S save(S entity) {
+        saveAll(List.of(entity));
+        return entity;
+    }
+
+    // Como en JPA, una entidad sin versión es nueva y recibe un ID nuevo; con versión es una modificación que
+    // falla con ObjectOptimisticLockingFailureException si la tarea ha cambiado o ya no existe. Se comprueban
+    // todas antes de escribir ninguna, así que el lote se guarda entero o no se guarda
+    @Override
+    public <S extends Task> List<S> saveAll(Iterable<S> entities) {
+        List<S> list = new ArrayList<>();
+        entities.forEach(list::add);
+        for (S entity : list) {
+            checkConstraints(entity.getTitle(), entity.getDescription(), entity.getStatus());
+        }
+        long now = System.currentTimeMillis();
+        store.write(writer -> {
+            for (S entity : list) {
+                if (entity.getVersion() != null) {
+                    MemoryTask current = entity.getId() != null ? writer.get(entity.getId()) : null;
+                    if (current == null || current.version() != entity.getVersion()) {
+                        throw new ObjectOptimisticLockingFailureException(Task.class, entity.getId());
+                    }
+                }
+            }
+            for (S entity : list) {
+                if (entity.getVersion() == null) {
+                    MemoryTask task = new MemoryTask(writer.nextId(), entity.getTitle(), entity.getDescription(),
+                            entity.getStatus(), 0, now);
+                    writer.put(task);
+                    entity.setId(task.id());
+                    entity.setVersion(task.version());
+                    entity.setUpdatedAt(Instant.ofEpochMilli(now));
+                } else {
+                    MemoryTask current = writer.get(entity.getId());
+                    if (!current.sameContent(entity)) {
+                        writer.put(new MemoryTask(current.id(), entity.getTitle(), entity.getDescription(),
+                                entity.getStatus(), current.version() + 1, now));
+                        entity.setVersion(current.version() + 1);
+                        entity.setUpdatedAt(Instant.ofEpochMilli(now));
+                    }
+                }
+            }
+            return null;
+        });
+        return list;
+    }
+
+    @Override
+    public <S extends Task> S saveAndFlush(S entity) {
+        return save(entity);
+    }
+
+    @Override
+    public <S extends Task> List<S> saveAllAndFlush(Iterable<S> entities) {
+        return saveAll(entities);
+    }
+
+    @Override
+    public void flush() {
+        // Cada escritura ya está en disco al volver
+    }
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        return Optional.ofNullable(find(id)).map(MemoryTask::toEntity);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return find(id) != null;
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return toEntities(store.after(null, 0, Integer.MAX_VALUE, null));
+    }
+
+    @Override
+    public List<Task> findAllById(Iterable<Long> ids) {
+        return toEntities(store.getAll(ids));
+    }
+
+    @Override
+    public List<Task> findAll(Sort sort) {
+        List<Task> tasks = findAll();
+        tasks.sort(comparator(sort, Task::getId, Task::getTitle, task -> task.getStatus().getValue()));
+        return tasks;
+    }
+
+    @Override
+    public Page<Task> findAll(Pageable pageable) {
+        return toDTOPage(null, pageable).map(dto -> new Task(dto.getId(), dto.getTitle(), dto.getDescription(),
+                TaskStatus.fromValue(dto.getStatus()), dto.getVersion()));
+    }
+
+    @Override
+    public long count() {
+        return store.count();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        deleteTaskById(id);
+    }
+
+    @Override
+    public void delete(Task entity) {
+        deleteTaskById(entity.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        List<Long> list = new ArrayList<>();
+        ids.forEach(list::add);
+        deleteIds(list);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Task> entities) {
+        List<Long> ids = new ArrayList<>();
+        entities.forEach(entity -> ids.add(entity.getId()));
+        deleteIds(ids);
+    }
+
+    @Override
+    public void deleteAll() {
+        deleteIds(store.after(null, 0, Integer.MAX_VALUE, null).stream().map(MemoryTask::id).toList());
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<Task> entities) {
+        deleteAll(entities);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+
+    @Override
+    @Deprecated
+    public Task getOne(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    @Deprecated
+    public Task getById(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public Task getReferenceById(Long id) {
+        return findById(id).orElseThrow(() -> new EntityNotFoundException("Tarea no encontrada con ID: " + id));
+    }
+
+    // --- QueryByExampleExecutor: la aplicación no lo usa ---
+
+    @Override
+    public <S extends Task> Optional<S> findOne(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Task> List<S> findAll(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Task> List<S> findAll(Example<S> example, Sort sort) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Task> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Task> long count(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Task> boolean exists(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Task, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw unsupported();
+    }
+
+    private MemoryTask find(Long id) {
+        return id != null ? store.get(id) : null;
+    }
+
+    private int deleteIds(Collection<Long> ids) {
+        return store.write(writer -> {
+            int deleted = 0;
+            for (Long id : ids) {
+                if (id != null && writer.delete(id)) {
+                    deleted++;
+                }
+            }
+            return deleted;
+        });
+    }
+
+    // Páginas en orden de ID directamente sobre los índices; con otra ordenación se ordenan las tareas del estado
+    private Page<TaskDTO> toDTOPage(TaskStatus status, Pageable pageable) {
+        long total = status != null ? store.count(status) : store.count();
+        if (pageable.isUnpaged()) {
+            List<TaskDTO> all = toDTOs(store.after(status, 0, Integer.MAX_VALUE, null));
+            all.sort(comparator(pageable.getSort(), TaskDTO::getId, TaskDTO::getTitle, TaskDTO::getStatus));
+            return new PageImpl<>(all, pageable, total);
+        }
+        Sort sort = pageable.getSort();
+        Sort.Order idOrder = sort.getOrderFor("id");
+        List<TaskDTO> items;
+        if (sort.isUnsorted() || (idOrder != null && sort.stream().count() == 1)) {
+            boolean descending = idOrder != null && idOrder.isDescending();
+            items = toDTOs(store.page(status, pageable.getOffset(), pageable.getPageSize(), descending));
+        } else {
+            List<TaskDTO> all = toDTOs(store.after(status, 0, Integer.MAX_VALUE, null));
+            all.sort(comparator(sort, TaskDTO::getId, TaskDTO::getTitle, TaskDTO::getStatus));
+            int from = (int) Math.min(pageable.getOffset(), all.size());
+            items = new ArrayList<>(all.subList(from, Math.min(from + pageable.getPageSize(), all.size())));
+        }
+        return new PageImpl<>(items, pageable, total);
+    }
+
+    // Ordenación por id, title o status (las propiedades que admite TaskService), con el ID como desempate
+    private static <T> Comparator<T> comparator(Sort sort, Function<T, Long> id, Function<T, String> title,
+                                                Function<T, String> status) {
+        Comparator<T> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<T> next = switch (order.getProperty()) {
+                case "id" -> Comparator.comparing(id);
+                case "title" -> Comparator.comparing(title, Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "status" -> Comparator.comparing(status);
+                default -> throw new IllegalArgumentException("No se puede ordenar por: " + order.getProperty());
+            };
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        Comparator<T> byId = Comparator.comparing(id);
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+
+    // Las mismas restricciones que las columnas de la tabla tasks
+    private static void checkConstraints(String title, String description, TaskStatus status) {
+        if (status == null) {
+            throw new DataIntegrityViolationException("El estado de la tarea es obligatorio");
+        }
+        if (title != null && title.length() > TITLE_LENGTH) {
+            throw new DataIntegrityViolationException("El título no puede tener más de " + TITLE_LENGTH + " caracteres");
+        }
+        if (description != null && description.length() > DESCRIPTION_LENGTH) {
+            throw new DataIntegrityViolationException("La descripción no puede tener más de " + DESCRIPTION_LENGTH + " caracteres");
+        }
+    }
+
+    private static int max(Limit limit) {
+        return limit.isLimited() ? limit.max() : Integer.MAX_VALUE;
+    }
+
+    private static List<TaskDTO> toDTOs(List<MemoryTask> tasks) {
+        List<TaskDTO> dtos = new ArrayList<>(tasks.size());
+        tasks.forEach(task -> dtos.add(task.toDTO()));
+        return dtos;
+    }
+
+    private static List<Task> toEntities(List<MemoryTask> tasks) {
+        List<Task> entities = new ArrayList<>(tasks.size());
+        tasks.forEach(task -> entities.add(task.toEntity()));
+        return entities;
+    }
+
+    // No se llega aquí: el constructor rechaza task-manager.soft-delete.enabled=true
+    private static UnsupportedOperationException softDeleteUnsupported() {
+        return new UnsupportedOperationException("El almacenamiento en memoria no admite borrado lógico");
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Las consultas por ejemplo no están disponibles en el almacenamiento en memoria");
+    }
+}
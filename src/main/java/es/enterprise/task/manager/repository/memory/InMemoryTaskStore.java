@@ -0,0 +1,367 @@
+package es.enterprise.task.manager.repository.memory;
+
+import es.enterprise.task.manager.entity.TaskStatus;
+import es.enterprise.task.manager.repository.TaskCollectionVersion;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Almacén principal de tareas en memoria (task-manager.storage.mode=memory), detrás de InMemoryTaskRepository.
+// - Tareas en una tabla hash con claves long sin boxing, y un BitSet por estado (más uno con todas) como índices
+//   secundarios: los IDs son consecutivos, así que cada índice ocupa un bit por ID y se recorre en orden de ID.
+// - Lecturas puntuales sin bloqueo (lectura optimista de StampedLock) y recorridos con bloqueo de lectura.
+// - Cada escritura se aplica con el bloqueo de escritura tomado, se añade al WAL en el mismo orden y, ya sin el
+//   bloqueo, espera al fsync del grupo en el que va (TaskWriteAheadLog).
+// - Una lectura puede encontrar cambios aplicados en memoria cuyo fsync aún no ha terminado: antes de devolverlos
+//   espera a que esté en disco todo lo escrito hasta la secuencia que ha visto, así que nunca se responde con datos
+//   que una caída podría perder. Solo esperan las lecturas que coinciden con un grupo pendiente, y sin soltar el
+//   bloqueo de escritura antes del fsync se perdería el commit en grupo. Tras un error de disco, como los cambios
+//   en memoria ya no se pueden hacer durables, también fallan las lecturas.
+// - Cada snapshot-interval se guarda un snapshot y se borran los segmentos del WAL que ya incluye; al arrancar se
+//   carga el snapshot y se repite solo el final del WAL.
+// Las escrituras son atómicas por llamada al repositorio y no participan en las transacciones de Spring: un
+// rollback no deshace lo que ya se ha escrito en el almacén.
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "task-manager.storage.mode", havingValue = "memory")
+public class InMemoryTaskStore {
+
+    private final Path directory;
+    private final StampedLock lock = new StampedLock();
+    private final LongObjectMap<MemoryTask> tasks;
+    // Índices por ID: todas las tareas y las de cada estado (por ordinal de TaskStatus)
+    private final BitSet live = new BitSet();
+    private final BitSet[] byStatus = new BitSet[TaskStatus.values().length];
+    private final long[] statusCounts = new long[TaskStatus.values().length];
+    private long versionSum;
+    private long nextId = 1;
+    private long sequence;
+    private long snapshotSequence;
+    private final TaskWriteAheadLog wal;
+
+    public InMemoryTaskStore(MeterRegistry meterRegistry,
+                             @Value("${task-manager.storage.memory.directory:data/tasks}") Path directory,
+                             @Value("${task-manager.storage.memory.fsync:true}") boolean fsync,
+                             @Value("${task-manager.storage.memory.initial-capacity:1024}") int initialCapacity) throws IOException {
+        this.directory = directory;
+        this.tasks = new LongObjectMap<>(initialCapacity);
+        for (int i = 0; i < byStatus.length; i++) {
+            byStatus[i] = new BitSet();
+        }
+        Files.createDirectories(directory);
+        recover();
+        this.wal = new TaskWriteAheadLog(directory, sequence, fsync);
+        Gauge.builder("task.memory.tasks", this, InMemoryTaskStore::count)
+                .description("Tareas en el almacén en memoria")
+                .register(meterRegistry);
+    }
+
+    // Escritura de una tarea o de un borrado dentro de write(); las entradas se registran en el WAL al terminar
+    final class Writer {
+
+        private final List<TaskWriteAheadLog.Entry> entries = new ArrayList<>();
+
+        private Writer() {
+        }
+
+        MemoryTask get(long id) {
+            return tasks.get(id);
+        }
+
+        long nextId() {
+            return nextId++;
+        }
+
+        void put(MemoryTask task) {
+            applyPut(task);
+            entries.add(TaskWriteAheadLog.Entry.put(task));
+        }
+
+        boolean delete(long id) {
+            if (applyDelete(id) == null) {
+                return false;
+            }
+            entries.add(TaskWriteAheadLog.Entry.delete(id));
+            return true;
+        }
+    }
+
+    // Ejecuta una operación de escritura de forma atómica y espera a que sus cambios estén en disco. La operación
+    // debe validar todo antes de llamar a put o delete: lo que ya haya aplicado no se deshace si falla después
+    <R> R write(Function<Writer, R> operation) {
+        wal.ensureWritable();
+        Writer writer = new Writer();
+        R result;
+        long writeSequence = 0;
+        long stamp = lock.writeLock();
+        try {
+            result = operation.apply(writer);
+            if (!writer.entries.isEmpty()) {
+                writeSequence = ++sequence;
+                wal.append(writeSequence, writer.entries);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        if (writeSequence > 0) {
+            wal.awaitDurable(writeSequence);
+        }
+        return result;
+    }
+
+    MemoryTask get(long id) {
+        long stamp = lock.tryOptimisticRead();
+        MemoryTask task = tasks.get(id);
+        long seen = sequence;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                task = tasks.get(id);
+                seen = sequence;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return durable(task, seen);
+    }
+
+    List<MemoryTask> getAll(Iterable<Long> ids) {
+        List<MemoryTask> result = new ArrayList<>();
+        long seen;
+        long stamp = lock.readLock();
+        try {
+            seen = sequence;
+            for (Long id : ids) {
+                MemoryTask task = id != null ? tasks.get(id) : null;
+                if (task != null) {
+                    result.add(task);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return durable(result, seen);
+    }
+
+    // Hasta limit tareas con ID mayor que afterId en orden de ID, opcionalmente de un estado y que cumplan filter
+    List<MemoryTask> after(TaskStatus status, long afterId, int limit, Predicate<MemoryTask> filter) {
+        List<MemoryTask> result = new ArrayList<>(Math.min(limit, 1024));
+        long seen;
+        long stamp = lock.readLock();
+        try {
+            seen = sequence;
+            BitSet ids = index(status);
+            int from = (int) Math.max(Math.min(afterId + 1, Integer.MAX_VALUE), 0);
+            for (int id = ids.nextSetBit(from); id >= 0 && result.size() < limit; id = nextSetBit(ids, id)) {
+                MemoryTask task = tasks.get(id);
+                if (filter == null || filter.test(task)) {
+                    result.add(task);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return durable(result, seen);
+    }
+
+    // Página en orden de ID (ascendente o descendente) saltando offset tareas, opcionalmente de un estado
+    List<MemoryTask> page(TaskStatus status, long offset, int limit, boolean descending) {
+        List<MemoryTask> result = new ArrayList<>(Math.min(limit, 1024));
+        long seen;
+        long stamp = lock.readLock();
+        try {
+            seen = sequence;
+            BitSet ids = index(status);
+            int id = descending ? ids.previousSetBit(ids.length() - 1) : ids.nextSetBit(0);
+            for (long skipped = 0; id >= 0 && skipped < offset; skipped++) {
+                id = descending ? ids.previousSetBit(id - 1) : nextSetBit(ids, id);
+            }
+            while (id >= 0 && result.size() < limit) {
+                result.add(tasks.get(id));
+                id = descending ? ids.previousSetBit(id - 1) : nextSetBit(ids, id);
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return durable(result, seen);
+    }
+
+    public long count() {
+        long count;
+        long seen;
+        long stamp = lock.readLock();
+        try {
+            count = tasks.size();
+            seen = sequence;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return durable(count, seen);
+    }
+
+    public long count(TaskStatus status) {
+        long count;
+        long seen;
+        long stamp = lock.readLock();
+        try {
+            count = statusCounts[status.ordinal()];
+            seen = sequence;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return durable(count, seen);
+    }
+
+    // Igual que la consulta agregada de TaskRepository: número de tareas, ID máximo y suma de versiones
+    public TaskCollectionVersion collectionVersion() {
+        TaskCollectionVersion version;
+        long seen;
+        long stamp = lock.readLock();
+        try {
+            version = new TaskCollectionVersion((long) tasks.size(), (long) Math.max(live.length() - 1, 0), versionSum);
+            seen = sequence;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return durable(version, seen);
+    }
+
+    // Devuelve el resultado de una lectura cuando ya está en disco todo lo escrito hasta la secuencia que vio
+    private <T> T durable(T result, long seenSequence) {
+        wal.awaitDurable(seenSequence);
+        return result;
+    }
+
+    // Guarda un snapshot si ha habido cambios desde el anterior. Solo se bloquean las escrituras mientras se copian
+    // las referencias de las filas (son inmutables) y se cambia de segmento del WAL; el fichero se escribe después
+    @Scheduled(fixedDelayString = "${task-manager.storage.memory.snapshot-interval:5m}",
+            initialDelayString = "${task-manager.storage.memory.snapshot-interval:5m}")
+    public synchronized void snapshot() {
+        long startNanos = System.nanoTime();
+        List<MemoryTask> rows;
+        long snapshotAt;
+        long snapshotNextId;
+        long stamp = lock.readLock();
+        try {
+            if (sequence == snapshotSequence) {
+                return;
+            }
+            snapshotAt = sequence;
+            snapshotNextId = nextId;
+            rows = new ArrayList<>(tasks.size());
+            tasks.forEachValue(rows::add);
+            // Con el bloqueo de lectura no hay escrituras en curso: todo lo anterior queda en los segmentos viejos
+            wal.rollover(snapshotAt + 1);
+        } catch (IOException e) {
+            log.error("No se pudo cambiar de segmento del WAL para el snapshot", e);
+            return;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        try {
+            TaskSnapshotFile.write(directory, snapshotAt, snapshotNextId, rows);
+            wal.deleteSegmentsBefore(snapshotAt + 1);
+            snapshotSequence = snapshotAt;
+            log.info("Snapshot de {} tareas hasta la secuencia {} guardado en {} ms", rows.size(), snapshotAt,
+                    (System.nanoTime() - startNanos) / 1_000_000);
+        } catch (IOException e) {
+            // El WAL sigue completo: se reintenta en el siguiente intervalo
+            log.error("No se pudo guardar el snapshot del almacén en memoria", e);
+        }
+    }
+
+    // Al parar se guarda un snapshot para que el siguiente arranque no tenga que repetir el WAL
+    @PreDestroy
+    public void close() throws IOException {
+        snapshot();
+        wal.close();
+    }
+
+    private void recover() throws IOException {
+        long startNanos = System.nanoTime();
+        Optional<TaskSnapshotFile.Header> header = TaskSnapshotFile.readLatest(directory, this::applyPut);
+        snapshotSequence = header.map(TaskSnapshotFile.Header::sequence).orElse(0L);
+        header.ifPresent(h -> nextId = Math.max(nextId, h.nextId()));
+        sequence = TaskWriteAheadLog.replay(directory, snapshotSequence, entry -> {
+            if (entry.task() == null) {
+                applyDelete(entry.id());
+            } else {
+                applyPut(entry.task());
+            }
+        });
+        log.info("Almacén en memoria recuperado de {}: {} tareas (snapshot hasta la secuencia {}, WAL hasta la {}) en {} ms",
+                directory, tasks.size(), snapshotSequence, sequence, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    private void applyPut(MemoryTask task) {
+        int index = bitIndex(task.id());
+        MemoryTask previous = tasks.put(task.id(), task);
+        if (previous == null) {
+            live.set(index);
+            addToStatus(task.status(), index);
+        } else {
+            versionSum -= previous.version();
+            if (previous.status() != task.status()) {
+                removeFromStatus(previous.status(), index);
+                addToStatus(task.status(), index);
+            }
+        }
+        versionSum += task.version();
+        nextId = Math.max(nextId, task.id() + 1);
+    }
+
+    private MemoryTask applyDelete(long id) {
+        if (id <= 0 || id >= Integer.MAX_VALUE) {
+            return null;
+        }
+        MemoryTask previous = tasks.remove(id);
+        if (previous != null) {
+            live.clear((int) id);
+            removeFromStatus(previous.status(), (int) id);
+            versionSum -= previous.version();
+        }
+        return previous;
+    }
+
+    private void addToStatus(TaskStatus status, int index) {
+        byStatus[status.ordinal()].set(index);
+        statusCounts[status.ordinal()]++;
+    }
+
+    private void removeFromStatus(TaskStatus status, int index) {
+        byStatus[status.ordinal()].clear(index);
+        statusCounts[status.ordinal()]--;
+    }
+
+    private BitSet index(TaskStatus status) {
+        return status == null ? live : byStatus[status.ordinal()];
+    }
+
+    // Los índices usan el ID como posición del BitSet
+    private static int bitIndex(long id) {
+        if (id <= 0 || id >= Integer.MAX_VALUE) {
+            throw new IllegalStateException("ID fuera del rango del almacén en memoria: " + id);
+        }
+        return (int) id;
+    }
+
+    private static int nextSetBit(BitSet ids, int id) {
+        return id == Integer.MAX_VALUE - 1 ? -1 : ids.nextSetBit(id + 1);
+    }
+}
@@ -0,0 +1,152 @@
+package es.enterprise.task.manager.repository.memory;
+
+import java.util.function.Consumer;
+
+// Tabla hash de direccionamiento abierto con claves long sin boxing (sondeo lineal y borrado por desplazamiento,
+// sin marcas de borrado). La clave 0 indica hueco libre, así que solo admite claves positivas.
+// No es thread-safe: InMemoryTaskStore serializa las escrituras con un StampedLock. Las claves y los valores van
+// juntos en un objeto inmutable de arrays, de modo que una lectura optimista concurrente con una escritura puede
+// devolver un valor obsoleto (se descarta al validar el sello) pero nunca sale de los límites de los arrays.
+final class LongObjectMap<V> {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private record Table(long[] keys, Object[] values) {
+    }
+
+    private Table table;
+    private int size;
+    private int resizeThreshold;
+
+    LongObjectMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max((int) (expectedSize / LOAD_FACTOR), 16) - 1) << 1;
+        allocate(capacity);
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        Table current = table;
+        long[] keys = current.keys();
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        // El límite de vueltas solo importa en lecturas optimistas que ven la tabla a medio modificar
+        for (int probes = 0; probes < keys.length; probes++) {
+            long candidate = keys[index];
+            if (candidate == key) {
+                return (V) current.values()[index];
+            }
+            if (candidate == 0) {
+                return null;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Clave no válida: " + key);
+        }
+        long[] keys = table.keys();
+        Object[] values = table.values();
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                V previous = (V) values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        // El valor se escribe antes que la clave para que un lector nunca encuentre la clave con el valor a null
+        values[index] = value;
+        keys[index] = key;
+        if (++size > resizeThreshold) {
+            resize(keys.length << 1);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        long[] keys = table.keys();
+        Object[] values = table.values();
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (keys[index] != key) {
+            if (keys[index] == 0) {
+                return null;
+            }
+            index = (index + 1) & mask;
+        }
+        V previous = (V) values[index];
+        // Se adelantan las claves siguientes del mismo grupo para no dejar huecos en sus cadenas de sondeo
+        int gap = index;
+        int next = (gap + 1) & mask;
+        while (keys[next] != 0) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = 0;
+        values[gap] = null;
+        size--;
+        return previous;
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEachValue(Consumer<V> consumer) {
+        long[] keys = table.keys();
+        Object[] values = table.values();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                consumer.accept((V) values[i]);
+            }
+        }
+    }
+
+    void clear() {
+        allocate(16);
+        size = 0;
+    }
+
+    private void resize(int capacity) {
+        Table previous = table;
+        Table resized = new Table(new long[capacity], new Object[capacity]);
+        int mask = capacity - 1;
+        long[] keys = previous.keys();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                int index = hash(keys[i]) & mask;
+                while (resized.keys()[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                resized.keys()[index] = keys[i];
+                resized.values()[index] = previous.values()[i];
+            }
+        }
+        table = resized;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void allocate(int capacity) {
+        table = new Table(new long[capacity], new Object[capacity]);
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    // Los IDs son consecutivos: se mezclan los bits para que no caigan en huecos contiguos
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
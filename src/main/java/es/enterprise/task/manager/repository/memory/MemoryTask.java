@@ -0,0 +1,30 @@
+package es.enterprise.task.manager.repository.memory;
+
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.entity.Task;
+import es.enterprise.task.manager.entity.TaskStatus;
+
+import java.time.Instant;
+import java.util.Objects;
+
+// Fila de una tarea en InMemoryTaskStore. Es inmutable: cada modificación sustituye la fila completa, así que los
+// lectores nunca ven una tarea a medio cambiar y el snapshot puede copiar las referencias sin clonarlas.
+record MemoryTask(long id, String title, String description, TaskStatus status, long version, long updatedAt) {
+
+    TaskDTO toDTO() {
+        return new TaskDTO(id, title, description, status.getValue(), version);
+    }
+
+    // Copia desacoplada, como la que devolvería JPA en una entidad separada del contexto de persistencia
+    Task toEntity() {
+        Task task = new Task(id, title, description, status, version);
+        task.setUpdatedAt(Instant.ofEpochMilli(updatedAt));
+        return task;
+    }
+
+    boolean sameContent(Task task) {
+        return Objects.equals(title, task.getTitle())
+                && Objects.equals(description, task.getDescription())
+                && status == task.getStatus();
+    }
+}
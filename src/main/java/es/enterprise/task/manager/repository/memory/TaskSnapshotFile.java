@@ -0,0 +1,129 @@
+package es.enterprise.task.manager.repository.memory;
+
+import es.enterprise.task.manager.entity.TaskStatus;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+// Snapshot de InMemoryTaskStore: todas las tareas en un fichero binario compacto (snapshot-<secuencia>.snap) con
+// la última secuencia del WAL que incluye. Al arrancar se carga el snapshot y solo se repiten las tramas del WAL
+// posteriores, en lugar de todo el historial de cambios.
+//
+// Formato: int MAGIC, int versión del formato, long secuencia, long siguiente ID, int número de tareas y, por cada
+// tarea, long id, short estado, long versión, long updatedAt, título y descripción; al final, el CRC32 de todo lo
+// anterior. Se escribe en un fichero temporal que se renombra al terminar, así que nunca queda uno a medias, y el
+// renombrado se fuerza a disco (fsync del directorio) antes de volver.
+final class TaskSnapshotFile {
+
+    private static final int MAGIC = 0x54534E50; // "TSNP"
+    private static final int FORMAT_VERSION = 1;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snap";
+
+    record Header(long sequence, long nextId, int count) {
+    }
+
+    private TaskSnapshotFile() {
+    }
+
+    static void write(Path directory, long sequence, long nextId, List<MemoryTask> tasks) throws IOException {
+        Path target = directory.resolve(String.format("%s%020d%s", PREFIX, sequence, SUFFIX));
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        try (OutputStream file = Files.newOutputStream(temporary)) {
+            BufferedOutputStream buffered = new BufferedOutputStream(file, 256 * 1024);
+            CheckedOutputStream checked = new CheckedOutputStream(buffered, new CRC32());
+            DataOutputStream data = new DataOutputStream(checked);
+            data.writeInt(MAGIC);
+            data.writeInt(FORMAT_VERSION);
+            data.writeLong(sequence);
+            data.writeLong(nextId);
+            data.writeInt(tasks.size());
+            for (MemoryTask task : tasks) {
+                data.writeLong(task.id());
+                data.writeShort(task.status().getCode());
+                data.writeLong(task.version());
+                data.writeLong(task.updatedAt());
+                TaskWriteAheadLog.writeNullableString(data, task.title());
+                TaskWriteAheadLog.writeNullableString(data, task.description());
+            }
+            data.flush();
+            // El CRC va fuera del flujo que lo calcula
+            new DataOutputStream(buffered).writeLong(checked.getChecksum().getValue());
+            buffered.flush();
+        }
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        // El renombrado debe estar en disco antes de borrar el snapshot anterior y, después, los segmentos del WAL
+        // que este incluye: si no, una caída podría dejar sin ninguno de los dos
+        TaskWriteAheadLog.syncDirectory(directory);
+        // Solo se conserva el último snapshot
+        for (Path snapshot : list(directory)) {
+            if (!snapshot.equals(target)) {
+                Files.deleteIfExists(snapshot);
+            }
+        }
+    }
+
+    // Lee el snapshot más reciente, si lo hay, pasando cada tarea a consumer
+    static Optional<Header> readLatest(Path directory, Consumer<MemoryTask> consumer) throws IOException {
+        List<Path> snapshots = list(directory);
+        if (snapshots.isEmpty()) {
+            return Optional.empty();
+        }
+        Path snapshot = snapshots.get(snapshots.size() - 1);
+        try (BufferedInputStream buffered = new BufferedInputStream(Files.newInputStream(snapshot), 256 * 1024)) {
+            CheckedInputStream checked = new CheckedInputStream(buffered, new CRC32());
+            DataInputStream data = new DataInputStream(checked);
+            if (data.readInt() != MAGIC || data.readInt() != FORMAT_VERSION) {
+                throw new IOException("Formato de snapshot no reconocido: " + snapshot);
+            }
+            long sequence = data.readLong();
+            long nextId = data.readLong();
+            int count = data.readInt();
+            for (int i = 0; i < count; i++) {
+                long id = data.readLong();
+                TaskStatus status = TaskStatus.fromCode(data.readShort());
+                long version = data.readLong();
+                long updatedAt = data.readLong();
+                String title = TaskWriteAheadLog.readNullableString(data);
+                String description = TaskWriteAheadLog.readNullableString(data);
+                consumer.accept(new MemoryTask(id, title, description, status, version, updatedAt));
+            }
+            long expectedCrc = checked.getChecksum().getValue();
+            if (new DataInputStream(buffered).readLong() != expectedCrc) {
+                throw new IOException("CRC no válido en el snapshot " + snapshot);
+            }
+            return Optional.of(new Header(sequence, nextId, count));
+        }
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted(Comparator.comparing(file -> file.getFileName().toString()))
+                    .toList();
+        }
+    }
+}
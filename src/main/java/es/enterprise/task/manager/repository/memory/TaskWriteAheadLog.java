@@ -0,0 +1,418 @@
+package es.enterprise.task.manager.repository.memory;
+
+import es.enterprise.task.manager.entity.TaskStatus;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Registro de escritura anticipada (WAL) de InMemoryTaskStore: cada operación del repositorio se añade como una
+// trama con su número de secuencia y el hilo que la hizo espera a que esté en disco antes de responder.
+// Commit en grupo: un único hilo escribe todas las tramas pendientes con un solo write + fsync, así que mientras
+// dura un fsync se acumulan las de las peticiones concurrentes y el coste se reparte entre todas.
+// El registro se divide en segmentos wal-<primera secuencia>.log; tras cada snapshot se borran los anteriores.
+//
+// Trama: int longitud, int CRC32 del contenido, y el contenido: long secuencia, int número de entradas y, por cada
+// entrada, byte tipo (PUT o DELETE), long id y, en PUT, short estado, long versión, long updatedAt, título y
+// descripción. Una trama es atómica: al recuperar se aplica entera o, si quedó cortada por una caída, no se aplica.
+@Slf4j
+final class TaskWriteAheadLog implements Closeable {
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    // Entrada de una trama: alta o modificación con la fila completa, o borrado si task es null
+    record Entry(long id, MemoryTask task) {
+
+        static Entry put(MemoryTask task) {
+            return new Entry(task.id(), task);
+        }
+
+        static Entry delete(long id) {
+            return new Entry(id, null);
+        }
+    }
+
+    private final Path directory;
+    private final boolean fsync;
+
+    // Tramas añadidas que el hilo escritor aún no ha llevado a disco
+    private final Object pendingLock = new Object();
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream(64 * 1024);
+    private ByteArrayOutputStream spare = new ByteArrayOutputStream(64 * 1024);
+    private long pendingSequence;
+
+    // Escritura en el segmento actual (hilo escritor y cambio de segmento)
+    private final ReentrantLock ioLock = new ReentrantLock();
+    private FileChannel channel;
+
+    private final Object durableMonitor = new Object();
+    // Volátil para que awaitDurable no tome el monitor cuando ya está en disco (el caso de casi todas las lecturas)
+    private volatile long durableSequence;
+    private IOException failure;
+
+    private volatile boolean closed;
+    private final Thread writer;
+
+    TaskWriteAheadLog(Path directory, long lastSequence, boolean fsync) throws IOException {
+        this.directory = directory;
+        this.fsync = fsync;
+        this.pendingSequence = lastSequence;
+        this.durableSequence = lastSequence;
+        // Siempre se empieza un segmento nuevo: el último de la ejecución anterior puede acabar en una trama cortada
+        this.channel = openSegment(lastSequence + 1);
+        this.writer = Thread.ofPlatform().name("task-wal-writer").daemon().start(this::writeLoop);
+    }
+
+    // Añade una trama; se llama con el bloqueo de escritura del almacén tomado, en el mismo orden en que se aplican
+    // los cambios en memoria
+    void append(long sequence, List<Entry> entries) {
+        byte[] frame = encode(sequence, entries);
+        synchronized (pendingLock) {
+            if (closed) {
+                throw new IllegalStateException("El registro de escritura está cerrado");
+            }
+            pending.write(frame, 0, frame.length);
+            pendingSequence = sequence;
+            pendingLock.notifyAll();
+        }
+    }
+
+    // Tras un error de disco no se aceptan más cambios: se comprueba antes de aplicarlos en memoria
+    void ensureWritable() {
+        synchronized (durableMonitor) {
+            if (failure != null) {
+                throw new UncheckedIOException("No se pudo escribir en el registro de escritura", failure);
+            }
+        }
+    }
+
+    // Espera a que la trama con esta secuencia (y todas las anteriores) esté en disco
+    void awaitDurable(long sequence) {
+        if (durableSequence >= sequence) {
+            return;
+        }
+        synchronized (durableMonitor) {
+            while (durableSequence < sequence) {
+                if (failure != null) {
+                    throw new UncheckedIOException("No se pudo escribir en el registro de escritura", failure);
+                }
+                try {
+                    durableMonitor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrumpido mientras se esperaba a la escritura en disco", e);
+                }
+            }
+        }
+    }
+
+    // Cierra el segmento actual y empieza otro a partir de nextSequence. Se llama con el bloqueo de escritura del
+    // almacén tomado, así que todas las tramas anteriores a nextSequence terminan en los segmentos viejos
+    void rollover(long nextSequence) throws IOException {
+        ioLock.lock();
+        try {
+            flush();
+            channel.close();
+            channel = openSegment(nextSequence);
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    // Borra los segmentos cuyo contenido ya está en un snapshot (todos los que empiezan antes que el actual)
+    void deleteSegmentsBefore(long sequence) throws IOException {
+        for (Path segment : segments()) {
+            if (segmentStart(segment) < sequence) {
+                Files.deleteIfExists(segment);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (pendingLock) {
+            closed = true;
+            pendingLock.notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ioLock.lock();
+        try {
+            flush();
+            channel.close();
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            synchronized (pendingLock) {
+                while (pending.size() == 0 && !closed) {
+                    try {
+                        pendingLock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.size() == 0) {
+                    return;
+                }
+            }
+            ioLock.lock();
+            try {
+                flush();
+            } catch (IOException e) {
+                log.error("Error escribiendo el registro de escritura; el almacén deja de aceptar cambios", e);
+                return;
+            } finally {
+                ioLock.unlock();
+            }
+        }
+    }
+
+    // Escribe de una vez todas las tramas pendientes; se llama con ioLock tomado
+    private void flush() throws IOException {
+        ByteArrayOutputStream batch;
+        long sequence;
+        synchronized (pendingLock) {
+            if (pending.size() == 0) {
+                return;
+            }
+            batch = pending;
+            pending = spare;
+            sequence = pendingSequence;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(batch.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            synchronized (durableMonitor) {
+                failure = e;
+                durableMonitor.notifyAll();
+            }
+            throw e;
+        } finally {
+            batch.reset();
+            spare = batch;
+        }
+        synchronized (durableMonitor) {
+            durableSequence = sequence;
+            durableMonitor.notifyAll();
+        }
+    }
+
+    // Crea el segmento y fuerza a disco la entrada del directorio antes de escribir en él: si no, tras una caída de
+    // la máquina el segmento podría no existir aunque el fsync de sus tramas ya se hubiera confirmado
+    private FileChannel openSegment(long firstSequence) throws IOException {
+        Path segment = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        FileChannel segmentChannel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        if (fsync) {
+            try {
+                syncDirectory(directory);
+            } catch (IOException e) {
+                segmentChannel.close();
+                throw e;
+            }
+        }
+        return segmentChannel;
+    }
+
+    // Fuerza a disco las entradas del directorio (ficheros creados, renombrados o borrados). Windows no permite abrir
+    // un directorio como fichero; allí NTFS ya registra esos cambios en su journal
+    static void syncDirectory(Path directory) throws IOException {
+        if (System.getProperty("os.name", "").startsWith("Windows")) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private static byte[] encode(long sequence, List<Entry> entries) {
+        try {
+            ByteArrayOutputStream content = new ByteArrayOutputStream(64 + entries.size() * 96);
+            DataOutputStream data = new DataOutputStream(content);
+            data.writeLong(sequence);
+            data.writeInt(entries.size());
+            for (Entry entry : entries) {
+                if (entry.task() == null) {
+                    data.writeByte(DELETE);
+                    data.writeLong(entry.id());
+                } else {
+                    MemoryTask task = entry.task();
+                    data.writeByte(PUT);
+                    data.writeLong(task.id());
+                    data.writeShort(task.status().getCode());
+                    data.writeLong(task.version());
+                    data.writeLong(task.updatedAt());
+                    writeNullableString(data, task.title());
+                    writeNullableString(data, task.description());
+                }
+            }
+            byte[] payload = content.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            ByteArrayOutputStream frame = new ByteArrayOutputStream(payload.length + 8);
+            DataOutputStream header = new DataOutputStream(frame);
+            header.writeInt(payload.length);
+            header.writeInt((int) crc.getValue());
+            header.write(payload);
+            return frame.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void writeNullableString(DataOutputStream data, String value) throws IOException {
+        data.writeBoolean(value != null);
+        if (value != null) {
+            data.writeUTF(value);
+        }
+    }
+
+    static String readNullableString(DataInputStream data) throws IOException {
+        return data.readBoolean() ? data.readUTF() : null;
+    }
+
+    // Recorre los segmentos en orden y pasa a consumer las entradas de las tramas posteriores a afterSequence;
+    // devuelve la última secuencia leída. Una trama incompleta o corrupta al final del último segmento (caída a
+    // mitad de una escritura) se descarta y el segmento se trunca; en cualquier otro sitio es un error.
+    static long replay(Path directory, long afterSequence, Consumer<Entry> consumer) throws IOException {
+        List<Path> segments = segments(directory);
+        long lastSequence = afterSequence;
+        for (int i = 0; i < segments.size(); i++) {
+            Path segment = segments.get(i);
+            boolean last = i == segments.size() - 1;
+            long validBytes = 0;
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment), 64 * 1024))) {
+                while (true) {
+                    byte[] payload = readFrame(input);
+                    if (payload == null) {
+                        break;
+                    }
+                    long sequence = applyFrame(payload, afterSequence, consumer);
+                    lastSequence = Math.max(lastSequence, sequence);
+                    validBytes += payload.length + 8L;
+                }
+            } catch (CorruptFrameException e) {
+                if (!last) {
+                    throw new IOException("Trama corrupta en " + segment + " antes del último segmento", e);
+                }
+                log.warn("Descartada una trama incompleta al final de {} (posición {})", segment, validBytes);
+                try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                    channel.truncate(validBytes);
+                }
+            }
+        }
+        return lastSequence;
+    }
+
+    // Contenido de la siguiente trama, o null si el segmento termina justo en el límite de una trama
+    private static byte[] readFrame(DataInputStream input) throws IOException {
+        int length;
+        try {
+            length = input.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        try {
+            int expectedCrc = input.readInt();
+            if (length < 12) {
+                throw new CorruptFrameException("Longitud de trama no válida: " + length);
+            }
+            byte[] payload = input.readNBytes(length);
+            if (payload.length < length) {
+                throw new CorruptFrameException("Trama incompleta");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != expectedCrc) {
+                throw new CorruptFrameException("CRC de trama no válido");
+            }
+            return payload;
+        } catch (EOFException e) {
+            throw new CorruptFrameException("Trama incompleta");
+        }
+    }
+
+    private static long applyFrame(byte[] payload, long afterSequence, Consumer<Entry> consumer) throws IOException {
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(payload));
+        long sequence = data.readLong();
+        if (sequence <= afterSequence) {
+            return sequence; // Ya incluida en el snapshot
+        }
+        int count = data.readInt();
+        for (int i = 0; i < count; i++) {
+            byte type = data.readByte();
+            long id = data.readLong();
+            if (type == DELETE) {
+                consumer.accept(Entry.delete(id));
+            } else if (type == PUT) {
+                TaskStatus status = TaskStatus.fromCode(data.readShort());
+                long version = data.readLong();
+                long updatedAt = data.readLong();
+                String title = readNullableString(data);
+                String description = readNullableString(data);
+                consumer.accept(Entry.put(new MemoryTask(id, title, description, status, version, updatedAt)));
+            } else {
+                throw new IOException("Tipo de entrada desconocido en la secuencia " + sequence + ": " + type);
+            }
+        }
+        return sequence;
+    }
+
+    private List<Path> segments() throws IOException {
+        return segments(directory);
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted((a, b) -> Long.compare(segmentStart(a), segmentStart(b)))
+                    .toList();
+        }
+    }
+
+    private static long segmentStart(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static class CorruptFrameException extends IOException {
+        CorruptFrameException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package es.enterprise.task.manager.retention;
+
+import es.enterprise.task.manager.configuration.CacheConfig;
+import es.enterprise.task.manager.entity.TaskStatus;
+import es.enterprise.task.manager.event.TaskChangeEvent;
+import es.enterprise.task.manager.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+// Retención de tareas: las terminadas que no se modifican desde hace task-manager.retention.age, y las borradas
+// lógicamente hace más de ese tiempo, se mueven a tasks_archive (mode=archive) o se eliminan (mode=purge).
+// Se procesan en bloques pequeños, cada uno en su propia transacción y con una pausa entre bloques, para que los
+// bloqueos duren poco y el tráfico normal no espere por el job.
+// Corre en su propio hilo y no con @Scheduled: el planificador compartido tiene un solo hilo, y las pausas entre
+// bloques retrasarían el cuadre de estadísticas, la purga de idempotencia y los snapshots del almacén en memoria.
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "task-manager.retention.enabled", havingValue = "true")
+public class TaskRetentionJob {
+
+    public static final String MODE_ARCHIVE = "archive";
+    public static final String MODE_PURGE = "purge";
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final Duration age;
+    private final boolean archive;
+    private final int chunkSize;
+    private final Duration pause;
+    private final int maxPerRun;
+    private final Counter removedDone;
+    private final Counter removedDeleted;
+    private final Duration interval;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-retention");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TaskRetentionJob(TaskRepository taskRepository, TransactionTemplate transactionTemplate,
+                            ApplicationEventPublisher eventPublisher, ObjectProvider<CacheManager> cacheManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${task-manager.retention.age:30d}") Duration age,
+                            @Value("${task-manager.retention.interval:1h}") Duration interval,
+                            @Value("${task-manager.retention.mode:archive}") String mode,
+                            @Value("${task-manager.retention.chunk-size:500}") int chunkSize,
+                            @Value("${task-manager.retention.pause:200ms}") Duration pause,
+                            @Value("${task-manager.retention.max-per-run:100000}") int maxPerRun) {
+        if (!MODE_ARCHIVE.equals(mode) && !MODE_PURGE.equals(mode)) {
+            throw new IllegalArgumentException("task-manager.retention.mode debe ser archive o purge: " + mode);
+        }
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
+        this.age = age;
+        this.interval = interval;
+        this.archive = MODE_ARCHIVE.equals(mode);
+        this.chunkSize = chunkSize;
+        this.pause = pause;
+        this.maxPerRun = maxPerRun;
+        this.removedDone = meterRegistry.counter("task.retention.rows", "mode", mode, "reason", "done");
+        this.removedDeleted = meterRegistry.counter("task.retention.rows", "mode", mode, "reason", "deleted");
+    }
+
+    @PostConstruct
+    public void start() {
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::runSafely, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Interrumpe la pausa entre bloques; el bloque en curso termina o se deshace con su transacción
+        scheduler.shutdownNow();
+    }
+
+    // Una excepción cancelaría las ejecuciones siguientes del ScheduledExecutorService: se registra y se sigue
+    private void runSafely() {
+        try {
+            run();
+        } catch (RuntimeException e) {
+            log.error("Error en la retención de tareas", e);
+        }
+    }
+
+    public void run() {
+        Instant cutoff = Instant.now().minus(age);
+        long startNanos = System.nanoTime();
+        int done = process(maxPerRun, limit -> taskRepository.findDoneIdsUpdatedBefore(TaskStatus.DONE.getCode(), cutoff, limit), true);
+        int deleted = process(maxPerRun - done, limit -> taskRepository.findIdsDeletedBefore(cutoff, limit), false);
+        if (done + deleted > 0) {
+            log.info("Retención ({}): {} tareas terminadas y {} borradas anteriores a {} en {} ms",
+                    archive ? MODE_ARCHIVE : MODE_PURGE, done, deleted, cutoff, (System.nanoTime() - startNanos) / 1_000_000);
+        }
+    }
+
+    // Procesa bloques hasta que no queden filas o se llegue al máximo por ejecución; devuelve las filas tratadas
+    private int process(int max, IntFunction<List<Long>> findIds, boolean done) {
+        int total = 0;
+        while (total < max) {
+            int limit = Math.min(chunkSize, max - total);
+            Integer removed = transactionTemplate.execute(status -> {
+                List<Long> ids = findIds.apply(limit);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                if (archive) {
+                    taskRepository.archiveByIds(ids, Instant.now());
+                }
+                int rows = taskRepository.purgeByIds(ids);
+                // Las tareas borradas lógicamente ya no cuentan en estadísticas ni en el índice de búsqueda
+                if (done) {
+                    ids.forEach(id -> eventPublisher.publishEvent(TaskChangeEvent.deleted(id, TaskStatus.DONE.getValue())));
+                }
+                evictFromCache(ids);
+                return rows;
+            });
+            if (removed == null || removed == 0) {
+                break;
+            }
+            total += removed;
+            (done ? removedDone : removedDeleted).increment(removed);
+            if (removed < limit) {
+                break;
+            }
+            if (!sleep()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    // Pausa entre bloques para dejar paso al tráfico normal; false si se interrumpe el hilo
+    private boolean sleep() {
+        try {
+            Thread.sleep(pause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void evictFromCache(List<Long> ids) {
+        CacheManager manager = cacheManager.getIfAvailable();
+        Cache cache = manager != null ? manager.getCache(CacheConfig.TASKS_CACHE) : null;
+        if (cache != null) {
+            ids.forEach(cache::evict);
+        }
+    }
+}
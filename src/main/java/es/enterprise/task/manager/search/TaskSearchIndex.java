@@ -0,0 +1,244 @@
+package es.enterprise.task.manager.search;
+
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.event.TaskChangeEvent;
+import es.enterprise.task.manager.service.TaskService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Índice invertido en memoria sobre el título y la descripción de las tareas.
+// Se reconstruye desde el repositorio al arrancar y se mantiene al día con los TaskChangeEvent.
+@Component
+@Slf4j
+public class TaskSearchIndex {
+
+    // Una coincidencia en el título pesa más que una en la descripción
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    // Con @Lazy se evita el ciclo TaskService -> TaskSearchIndex -> TaskService
+    @Lazy
+    @Autowired
+    private TaskService taskService;
+
+    // Índice servido; se sustituye entero al terminar una reconstrucción
+    private Index current = new Index();
+    // Eventos recibidos mientras se reconstruye el índice; null si no hay reconstrucción en curso
+    private List<TaskChangeEvent> pendingEvents;
+    private final Object lock = new Object();
+
+    public record SearchHits(List<Long> ids, long total) {
+    }
+
+    private record IndexedTask(Map<String, Integer> titleTerms, Map<String, Integer> descriptionTerms) {
+
+        Map<String, Integer> weights() {
+            Map<String, Integer> weights = new HashMap<>();
+            titleTerms.forEach((term, frequency) -> weights.merge(term, frequency * TITLE_WEIGHT, Integer::sum));
+            descriptionTerms.forEach((term, frequency) -> weights.merge(term, frequency * DESCRIPTION_WEIGHT, Integer::sum));
+            return weights;
+        }
+    }
+
+    private static final class Index {
+        // término -> (ID de tarea -> frecuencia ponderada del término en la tarea)
+        private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+        // ID de tarea -> términos indexados por campo, para poder retirar o actualizar parcialmente la tarea
+        private final Map<Long, IndexedTask> documents = new HashMap<>();
+
+        void apply(TaskChangeEvent event) {
+            switch (event.type()) {
+                case DELETED -> remove(event.id());
+                case PATCHED -> patch(event.task(), event.fields());
+                default -> replace(event.task().getId(), document(event.task()));
+            }
+        }
+
+        // Reindexa solo los campos modificados; el resto se conserva del documento ya indexado
+        void patch(TaskDTO partialTask, Set<String> fields) {
+            boolean titleChanged = fields.contains("title");
+            boolean descriptionChanged = fields.contains("description");
+            if (!titleChanged && !descriptionChanged) {
+                return;
+            }
+            IndexedTask existing = documents.get(partialTask.getId());
+            replace(partialTask.getId(), new IndexedTask(
+                    titleChanged ? termFrequencies(partialTask.getTitle()) : existing != null ? existing.titleTerms() : Map.of(),
+                    descriptionChanged ? termFrequencies(partialTask.getDescription()) : existing != null ? existing.descriptionTerms() : Map.of()));
+        }
+
+        void replace(Long id, IndexedTask document) {
+            remove(id);
+            documents.put(id, document);
+            document.weights().forEach((term, weight) -> postings.computeIfAbsent(term, key -> new HashMap<>()).put(id, weight));
+        }
+
+        void remove(Long id) {
+            IndexedTask document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            for (String term : document.weights().keySet()) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting != null) {
+                    posting.remove(id);
+                    if (posting.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+    }
+
+    // Se construye un índice nuevo sin bloquear las búsquedas, que siguen sirviéndose del actual.
+    // Los eventos que llegan durante la construcción se aplican a ambos: al actual en el momento
+    // y al nuevo al final, sobre las filas leídas, para que una fila ya obsoleta del recorrido no
+    // pise una actualización concurrente ni resucite una tarea borrada.
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (lock) {
+            if (pendingEvents != null) {
+                log.warn("Ya hay una reconstrucción del índice de búsqueda en curso");
+                return;
+            }
+            pendingEvents = new ArrayList<>();
+        }
+        Index rebuilt = new Index();
+        try {
+            taskService.streamAllTasks(task -> rebuilt.replace(task.getId(), document(task)));
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                pendingEvents = null;
+            }
+            throw e;
+        }
+        int size;
+        synchronized (lock) {
+            pendingEvents.forEach(rebuilt::apply);
+            pendingEvents = null;
+            current = rebuilt;
+            size = rebuilt.documents.size();
+        }
+        log.info("Índice de búsqueda reconstruido con {} tareas en {} ms", size, System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChange(TaskChangeEvent event) {
+        synchronized (lock) {
+            current.apply(event);
+            if (pendingEvents != null) {
+                pendingEvents.add(event);
+            }
+        }
+    }
+
+    public void index(TaskDTO task) {
+        IndexedTask document = document(task);
+        synchronized (lock) {
+            current.replace(task.getId(), document);
+        }
+    }
+
+    public void patch(TaskDTO partialTask, Set<String> fields) {
+        synchronized (lock) {
+            current.patch(partialTask, fields);
+        }
+    }
+
+    public void remove(Long id) {
+        synchronized (lock) {
+            current.remove(id);
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return current.documents.size();
+        }
+    }
+
+    // Devuelve los IDs de la página pedida ordenados por relevancia (TF-IDF) y el total de coincidencias
+    public SearchHits search(String query, long offset, int limit) {
+        List<String> queryTerms = tokenize(query);
+        Map<Long, Double> scores = new HashMap<>();
+        synchronized (lock) {
+            int totalDocuments = current.documents.size();
+            for (String term : queryTerms) {
+                Map<Long, Integer> posting = current.postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1.0 + (double) totalDocuments / posting.size());
+                posting.forEach((id, frequency) -> scores.merge(id, frequency * idf, Double::sum));
+            }
+        }
+        // Solo se ordenan los offset + limit mejores resultados
+        long wanted = offset + limit;
+        Comparator<Map.Entry<Long, Double>> byRelevance = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(byRelevance);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            top.offer(entry);
+            if (top.size() > wanted) {
+                top.poll();
+            }
+        }
+        List<Long> ranked = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ranked.add(top.poll().getKey());
+        }
+        List<Long> ids = new ArrayList<>(limit);
+        for (int i = ranked.size() - 1 - (int) Math.min(offset, ranked.size()); i >= 0 && ids.size() < limit; i--) {
+            ids.add(ranked.get(i));
+        }
+        return new SearchHits(ids, scores.size());
+    }
+
+    private static IndexedTask document(TaskDTO task) {
+        return new IndexedTask(termFrequencies(task.getTitle()), termFrequencies(task.getDescription()));
+    }
+
+    private static Map<String, Integer> termFrequencies(String text) {
+        Map<String, Integer> terms = new HashMap<>();
+        for (String term : tokenize(text)) {
+            terms.merge(term, 1, Integer::sum);
+        }
+        return terms;
+    }
+
+    // Minúsculas, sin tildes y partido por cualquier carácter que no sea letra o dígito
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String token : SEPARATORS.split(normalized)) {
+            if (token.length() >= MIN_TERM_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,34 @@
+package es.enterprise.task.manager.service;
+
+import es.enterprise.task.manager.exception.InvalidTaskDataException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Codifica y decodifica el cursor opaco de la paginación keyset (último ID devuelto)
+public final class TaskCursor {
+
+    private TaskCursor() {
+    }
+
+    public static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Un cursor vacío equivale a empezar desde el principio
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            long lastId = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (lastId < 0) {
+                throw new InvalidTaskDataException("Cursor de paginación inválido");
+            }
+            return lastId;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTaskDataException("Cursor de paginación inválido");
+        }
+    }
+}
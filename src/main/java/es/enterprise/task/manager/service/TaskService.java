@@ -1,107 +1,594 @@
 package es.enterprise.task.manager.service;
 
+import es.enterprise.task.manager.configuration.CacheConfig;
+import es.enterprise.task.manager.dto.TaskBatchResultDTO;
 import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.dto.TaskFieldsDTO;
+import es.enterprise.task.manager.dto.TaskPageDTO;
 import es.enterprise.task.manager.entity.Task;
+import es.enterprise.task.manager.event.TaskChangeEvent;
+import es.enterprise.task.manager.entity.TaskStatus;
 import es.enterprise.task.manager.exception.InvalidTaskDataException;
 import es.enterprise.task.manager.exception.TaskNotFoundException;
+import es.enterprise.task.manager.exception.TaskVersionConflictException;
 import es.enterprise.task.manager.mapper.TaskMapper;
+import es.enterprise.task.manager.repository.TaskCollectionVersion;
+import es.enterprise.task.manager.repository.TaskIdStatus;
 import es.enterprise.task.manager.repository.TaskRepository;
+import es.enterprise.task.manager.search.TaskSearchIndex;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
+@Timed(value = "task.service", histogram = true) // Un temporizador por método, etiquetado con class y method
 public class TaskService {
 
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired(required = false)
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+
+    @Value("${task-manager.pagination.default-size:50}")
+    private int defaultPageSize = 50;
+
+    @Value("${task-manager.pagination.max-size:1000}")
+    private int maxPageSize = 1000;
+
+    // Solo se permite ordenar por columnas cortas; ordenar por la descripción obligaría a recorrer la tabla
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "title", "status");
+
+    @Value("${task-manager.soft-delete.enabled:false}")
+    private boolean softDelete = false;
+
+    @Value("${task-manager.batch.chunk-size:500}")
+    private int batchChunkSize = 500;
+
+    @Value("${task-manager.batch.max-items:10000}")
+    private int batchMaxItems = 10000;
+
     // Obtener todas las tareas
+    @Transactional(readOnly = true)
     public List<TaskDTO> getAllTasks() {
-        log.info("Obteniendo todas las tareas");
-        List<Task> tasks = taskRepository.findAll();
+        log.debug("Obteniendo todas las tareas");
+        List<TaskDTO> tasks = taskRepository.findAllDTOs();
         if (tasks.isEmpty()) {
-            log.warn("No se encontraron tareas");
+            log.debug("No se encontraron tareas");
+        }
+        return tasks;
+    }
+
+    // Versión agregada de todas las tareas, usada como ETag de GET /tasks
+    @Transactional(readOnly = true)
+    public TaskCollectionVersion getCollectionVersion() {
+        return taskRepository.findCollectionVersion();
+    }
+
+    // Obtener una página de tareas con paginación por cursor (keyset sobre el ID), opcionalmente filtrada por estado.
+    // Con fields (p. ej. "id,title,status") solo se leen esas columnas y el resto de campos no se devuelven.
+    @Transactional(readOnly = true)
+    public TaskPageDTO getTasksPage(String cursor, Integer size, String status, String fields) {
+        int pageSize = resolvePageSize(size);
+        long afterId = TaskCursor.decode(cursor);
+        TaskStatus taskStatus = status == null ? null : TaskStatus.fromValue(status);
+        log.debug("Obteniendo página de {} tareas a partir del ID: {}", pageSize, afterId);
+        // Se pide un elemento de más para saber si hay página siguiente sin lanzar un COUNT
+        List<TaskDTO> tasks;
+        if (fields != null) {
+            // Solo las respuestas con fields omiten campos: cada tarea se serializa con los campos pedidos
+            Set<String> selected = parseFields(fields);
+            tasks = taskRepository.findFieldsAfter(selected, taskStatus, afterId, pageSize + 1).stream()
+                    .<TaskDTO>map(task -> new TaskFieldsDTO(task, selected))
+                    .toList();
+        } else {
+            Limit limit = Limit.of(pageSize + 1);
+            tasks = taskStatus == null
+                    ? taskRepository.findDTOsAfter(afterId, limit)
+                    : taskRepository.findDTOsByStatusAfter(taskStatus, afterId, limit);
+        }
+        boolean hasNext = tasks.size() > pageSize;
+        List<TaskDTO> items = hasNext ? tasks.subList(0, pageSize) : tasks;
+        String next = hasNext ? TaskCursor.encode(items.get(items.size() - 1).getId()) : null;
+        return new TaskPageDTO(items, next);
+    }
+
+    // Recorrer todas las tareas fila a fila sin cargar la tabla completa en memoria
+    @Transactional(readOnly = true)
+    public void streamAllTasks(Consumer<TaskDTO> consumer) {
+        log.debug("Recorriendo todas las tareas en streaming");
+        // Son DTO, no entidades: el contexto de persistencia no crece mientras se recorre la tabla
+        try (Stream<TaskDTO> tasks = taskRepository.streamAllDTOs()) {
+            tasks.forEach(consumer);
         }
-        return tasks.stream()
-                .map(TaskMapper::toDTO)
-                .collect(Collectors.toList());
     }
 
     // Obtener una tarea por ID
+    @Cacheable(cacheNames = CacheConfig.TASKS_CACHE, key = "#id")
+    @Transactional(readOnly = true)
     public TaskDTO getTaskById(Long id) {
-        log.info("Buscando tarea con ID: {}", id);
-        Optional<Task> task = taskRepository.findById(id);
+        log.debug("Buscando tarea con ID: {}", id);
+        Optional<TaskDTO> task = taskRepository.findDTOById(id);
         if (task.isPresent()) {
-            log.info("Tarea encontrada: {}", task.get().getTitle());
-            return TaskMapper.toDTO(task.get());
+            log.debug("Tarea encontrada: {}", task.get().getTitle());
+            return task.get();
         } else {
-            log.error("Tarea con ID: {} no encontrada", id);
+            log.debug("Tarea con ID: {} no encontrada", id);
             throw new TaskNotFoundException("Tarea no encontrada con ID: " + id.toString());
         }
     }
 
     // Crear una nueva tarea
+    @CachePut(cacheNames = CacheConfig.TASKS_CACHE, key = "#result.id")
     public TaskDTO createTask(TaskDTO taskDTO) {
         if (taskDTO == null || taskDTO.getTitle() == null || taskDTO.getTitle().isEmpty()) {
-            log.error("Datos inválidos al intentar crear una tarea: {}", taskDTO);
+            log.debug("Datos inválidos al intentar crear una tarea: {}", taskDTO);
             throw new InvalidTaskDataException("El título de la tarea no puede estar vacío");
         }
-        log.info("Creando nueva tarea con título: {}", taskDTO.getTitle());
+        log.debug("Creando nueva tarea con título: {}", taskDTO.getTitle());
         Task task = TaskMapper.toEntity(taskDTO);
         Task savedTask = taskRepository.save(task);
-        log.info("Tarea creada con éxito: {}", savedTask.getTitle());
-        return TaskMapper.toDTO(savedTask);
+        log.debug("Tarea creada con éxito: {}", savedTask.getTitle());
+        TaskDTO createdTask = TaskMapper.toDTO(savedTask);
+        eventPublisher.publishEvent(TaskChangeEvent.created(createdTask));
+        return createdTask;
     }
 
-    // Borrar una tarea por ID
+    // Borrar una tarea por ID con una única sentencia, que devuelve el estado de la fila borrada (vacío si no existía).
+    // En modo soft-delete solo se marca deleted_at y la tarea deja de verse en las consultas
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, key = "#id")
     public boolean deleteTask(Long id) {
-        log.info("Intentando borrar tarea con ID: {}", id);
-        if (taskRepository.existsById(id)) {
-            taskRepository.deleteById(id);
-            log.info("Tarea con ID: {} eliminada exitosamente", id);
-            return true;
-        } else {
-            log.error("Tarea con ID: {} no encontrada para eliminar", id);
+        log.debug("Intentando borrar tarea con ID: {}", id);
+        Optional<TaskStatus> deleted = softDelete
+                ? taskRepository.softDeleteReturningStatus(id, Instant.now())
+                : taskRepository.deleteReturningStatus(id);
+        if (deleted.isEmpty()) {
+            log.debug("Tarea con ID: {} no encontrada para eliminar", id);
             throw new TaskNotFoundException("Tarea no encontrada con ID: " + id);
         }
+        log.debug("Tarea con ID: {} eliminada exitosamente", id);
+        eventPublisher.publishEvent(TaskChangeEvent.deleted(id, deleted.get().getValue()));
+        return true;
     }
 
-    // Actualizar una tarea
-    public TaskDTO updateTask(Long id, TaskDTO taskDTO) {
-        log.info("Actualizando tarea con ID: {}", id);
+    // Actualizar una tarea; si se indica expectedVersion (If-Match) debe coincidir con la versión actual.
+    // La lectura, la comprobación y la escritura van en la misma transacción: el UPDATE lleva la versión leída
+    // (@Version), así que un cambio concurrente entre la comprobación y el commit acaba en conflicto, no se pisa
+    @Transactional
+    @CachePut(cacheNames = CacheConfig.TASKS_CACHE, key = "#id")
+    public TaskDTO updateTask(Long id, TaskDTO taskDTO, Long expectedVersion) {
+        log.debug("Actualizando tarea con ID: {}", id);
         Optional<Task> taskOptional = taskRepository.findById(id);
         if (taskOptional.isPresent()) {
             Task task = taskOptional.get();
+            if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+                log.debug("Versión de la tarea con ID: {} no coincide (esperada {}, actual {})", id, expectedVersion, task.getVersion());
+                throw new TaskVersionConflictException("La tarea con ID: " + id + " ha cambiado desde la versión " + expectedVersion);
+            }
+            String previousStatus = task.getStatus().getValue();
             task.setTitle(taskDTO.getTitle());
             task.setDescription(taskDTO.getDescription());
-            task.setStatus(taskDTO.getStatus());
+            task.setStatus(TaskMapper.toStatus(taskDTO.getStatus()));
 
-            Task updatedTask = taskRepository.save(task);
-            log.info("Tarea actualizada con éxito: {}", updatedTask.getTitle());
-            return TaskMapper.toDTO(updatedTask);
+            // El flush lanza el UPDATE ya: hasta entonces @Version no ha subido, y la respuesta (ETag), la caché y el
+            // evento llevarían la versión anterior, con lo que el siguiente If-Match acabaría en un 412 sin motivo
+            Task updatedTask = taskRepository.saveAndFlush(task);
+            log.debug("Tarea actualizada con éxito: {}", updatedTask.getTitle());
+            TaskDTO updatedTaskDTO = TaskMapper.toDTO(updatedTask);
+            eventPublisher.publishEvent(TaskChangeEvent.updated(updatedTaskDTO, previousStatus));
+            return updatedTaskDTO;
         } else {
-            log.error("Tarea con ID: {} no encontrada para actualizar", id);
+            log.debug("Tarea con ID: {} no encontrada para actualizar", id);
             throw new TaskNotFoundException("Tarea no encontrada con ID: " + id);
         }
     }
 
-    // Consultar tareas por estado
-    public List<TaskDTO> getTasksByStatus(String status) {
-        log.info("Buscando tareas con estado: {}", status);
-        List<Task> tasks = taskRepository.findByStatus(status);
-        if (tasks.isEmpty()) {
-            log.warn("No se encontraron tareas con estado: {}", status);
-        } else {
-            log.info("Se han encontrado {} tareas con estado: {}", tasks.size(), status);
+    // Actualización parcial con semántica JSON Merge Patch: solo se modifican los campos presentes
+    // (un valor null borra la descripción) en un único UPDATE, sin leer antes la tarea.
+    // Devuelve la nueva versión si se conocía la anterior (If-Match), o null en otro caso
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, key = "#id")
+    public Long patchTask(Long id, Map<String, Object> patch, Long expectedVersion) {
+        log.debug("Aplicando cambios parciales a la tarea con ID: {}", id);
+        Map<String, Object> changes = new LinkedHashMap<>();
+        TaskDTO changedTask = new TaskDTO();
+        changedTask.setId(id);
+        for (Map.Entry<String, Object> entry : patch.entrySet()) {
+            Object value = entry.getValue();
+            switch (entry.getKey()) {
+                case "title" -> {
+                    if (!(value instanceof String title) || title.isEmpty()) {
+                        throw new InvalidTaskDataException("El título de la tarea no puede estar vacío");
+                    }
+                    changes.put("title", title);
+                    changedTask.setTitle(title);
+                }
+                case "description" -> {
+                    if (value != null && !(value instanceof String)) {
+                        throw new InvalidTaskDataException("La descripción debe ser un texto");
+                    }
+                    changes.put("description", value);
+                    changedTask.setDescription((String) value);
+                }
+                case "status" -> {
+                    if (!(value instanceof String status)) {
+                        throw new InvalidTaskDataException("Estado de tarea no válido: " + value);
+                    }
+                    TaskStatus taskStatus = TaskStatus.fromValue(status);
+                    changes.put("status", taskStatus);
+                    changedTask.setStatus(taskStatus.getValue());
+                }
+                case "id" -> {
+                    if (value != null && !id.toString().equals(value.toString())) {
+                        throw new InvalidTaskDataException("No se puede modificar el ID de la tarea");
+                    }
+                }
+                case "version" -> {
+                    // La versión esperada se indica con If-Match, no en el cuerpo
+                }
+                default -> throw new InvalidTaskDataException("Campo no modificable: " + entry.getKey());
+            }
+        }
+        if (changes.isEmpty()) {
+            if (!taskRepository.existsById(id)) {
+                throw new TaskNotFoundException("Tarea no encontrada con ID: " + id);
+            }
+            return null;
+        }
+        // Con estado, el UPDATE solo afecta a la fila si tenía el otro: una fila afectada es la transición
+        TaskStatus newStatus = (TaskStatus) changes.get("status");
+        int updated = taskRepository.patch(id, changes, expectedVersion);
+        if (updated == 0 && newStatus != null) {
+            // La tarea no existe, su versión no es la esperada o ya tenía ese estado: se aplica el resto sin el estado
+            changes.remove("status");
+            changedTask.setStatus(null);
+            newStatus = null;
+            if (changes.isEmpty()) {
+                return currentVersion(id, expectedVersion);
+            }
+            updated = taskRepository.patch(id, changes, expectedVersion);
+        }
+        if (updated == 0) {
+            throw notFoundOrVersionConflict(id, expectedVersion);
+        }
+        String previousStatus = newStatus != null ? otherStatus(newStatus).getValue() : null;
+        eventPublisher.publishEvent(TaskChangeEvent.patched(changedTask, changes.keySet(), previousStatus));
+        return expectedVersion != null ? expectedVersion + 1 : null;
+    }
+
+    // Cambio de estado en un único UPDATE ... WHERE id = ? AND status <> ?, sin leer antes el estado anterior: si
+    // afecta a la fila, venía del otro estado. Solo si no afecta a ninguna se comprueba si la tarea existe
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, key = "#id")
+    public void updateTaskStatus(Long id, String status) {
+        TaskStatus taskStatus = TaskStatus.fromValue(status);
+        log.debug("Cambiando el estado de la tarea con ID: {} a {}", id, taskStatus.getValue());
+        if (taskRepository.updateStatus(id, taskStatus) == 0) {
+            if (!taskRepository.existsById(id)) {
+                log.debug("Tarea con ID: {} no encontrada para cambiar su estado", id);
+                throw new TaskNotFoundException("Tarea no encontrada con ID: " + id);
+            }
+            log.debug("La tarea con ID: {} ya tenía el estado {}", id, taskStatus.getValue());
+            return;
+        }
+        TaskDTO changedTask = new TaskDTO();
+        changedTask.setId(id);
+        changedTask.setStatus(taskStatus.getValue());
+        eventPublisher.publishEvent(TaskChangeEvent.patched(changedTask, Set.of("status"), otherStatus(taskStatus).getValue()));
+    }
+
+    // Consultar tareas por estado, paginadas y ordenadas
+    @Transactional(readOnly = true)
+    public Page<TaskDTO> getTasksByStatus(String status, Pageable pageable) {
+        TaskStatus taskStatus = TaskStatus.fromValue(status);
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new InvalidTaskDataException("No se puede ordenar por: " + order.getProperty());
+            }
         }
-        return tasks.stream()
-                .map(TaskMapper::toDTO)
+        log.debug("Buscando tareas con estado: {} (página {}, tamaño {})", taskStatus.getValue(), pageable.getPageNumber(), pageable.getPageSize());
+        Page<TaskDTO> tasks = taskRepository.findDTOsByStatus(taskStatus, pageable);
+        if (log.isDebugEnabled()) {
+            if (tasks.isEmpty()) {
+                log.debug("No se encontraron tareas con estado: {}", status);
+            } else {
+                log.debug("Se han encontrado {} tareas con estado: {}", tasks.getTotalElements(), status);
+            }
+        }
+        return tasks;
+    }
+
+    // Buscar tareas por palabras clave en el título y la descripción, ordenadas por relevancia
+    @Transactional(readOnly = true)
+    public Page<TaskDTO> searchTasks(String query, Pageable pageable) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidTaskDataException("El texto de búsqueda no puede estar vacío");
+        }
+        log.debug("Buscando tareas que contengan: {}", query);
+        TaskSearchIndex.SearchHits hits = taskSearchIndex.search(query, pageable.getOffset(), pageable.getPageSize());
+        // Solo se cargan las tareas de la página, conservando el orden de relevancia del índice
+        Map<Long, TaskDTO> tasks = taskRepository.findDTOsByIds(hits.ids()).stream()
+                .collect(Collectors.toMap(TaskDTO::getId, Function.identity()));
+        List<TaskDTO> items = hits.ids().stream()
+                .map(tasks::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        return new PageImpl<>(items, pageable, hits.total());
+    }
+
+    // Crear varias tareas en transacciones por bloques
+    public List<TaskBatchResultDTO> createTasks(List<TaskDTO> taskDTOs) {
+        checkBatchSize(taskDTOs);
+        log.debug("Creando {} tareas en lote", taskDTOs.size());
+        TaskBatchResultDTO[] results = new TaskBatchResultDTO[taskDTOs.size()];
+        List<Integer> validIndexes = new ArrayList<>(taskDTOs.size());
+        for (int i = 0; i < taskDTOs.size(); i++) {
+            TaskDTO taskDTO = taskDTOs.get(i);
+            if (taskDTO == null || taskDTO.getTitle() == null || taskDTO.getTitle().isEmpty()) {
+                results[i] = new TaskBatchResultDTO(i, null, HttpStatus.BAD_REQUEST.value(), "El título de la tarea no puede estar vacío");
+            } else if (!isValidStatus(taskDTO.getStatus())) {
+                results[i] = new TaskBatchResultDTO(i, null, HttpStatus.BAD_REQUEST.value(), "Estado de tarea no válido: " + taskDTO.getStatus());
+            } else {
+                validIndexes.add(i);
+            }
+        }
+        executeInChunks(validIndexes, results, chunk -> {
+            List<Task> tasks = new ArrayList<>(chunk.size());
+            for (Integer index : chunk) {
+                Task task = TaskMapper.toEntity(taskDTOs.get(index));
+                task.setId(null); // En el alta el ID siempre lo genera la secuencia
+                tasks.add(task);
+            }
+            // Con IDs de secuencia, Hibernate agrupa los INSERT en lotes JDBC al hacer commit
+            List<Task> savedTasks = taskRepository.saveAll(tasks);
+            List<TaskBatchResultDTO> chunkResults = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                chunkResults.add(new TaskBatchResultDTO(chunk.get(i), savedTasks.get(i).getId(), HttpStatus.CREATED.value(), null));
+                // Los oyentes lo reciben solo si el bloque llega a hacer commit
+                eventPublisher.publishEvent(TaskChangeEvent.created(TaskMapper.toDTO(savedTasks.get(i))));
+            }
+            return chunkResults;
+        });
+        return Arrays.asList(results);
+    }
+
+    // Actualizar varias tareas en transacciones por bloques
+    public List<TaskBatchResultDTO> updateTasks(List<TaskDTO> taskDTOs) {
+        checkBatchSize(taskDTOs);
+        log.debug("Actualizando {} tareas en lote", taskDTOs.size());
+        TaskBatchResultDTO[] results = new TaskBatchResultDTO[taskDTOs.size()];
+        List<Integer> validIndexes = new ArrayList<>(taskDTOs.size());
+        for (int i = 0; i < taskDTOs.size(); i++) {
+            TaskDTO taskDTO = taskDTOs.get(i);
+            if (taskDTO == null || taskDTO.getId() == null) {
+                results[i] = new TaskBatchResultDTO(i, null, HttpStatus.BAD_REQUEST.value(), "El ID de la tarea es obligatorio");
+            } else if (taskDTO.getTitle() == null || taskDTO.getTitle().isEmpty()) {
+                results[i] = new TaskBatchResultDTO(i, taskDTO.getId(), HttpStatus.BAD_REQUEST.value(), "El título de la tarea no puede estar vacío");
+            } else if (!isValidStatus(taskDTO.getStatus())) {
+                results[i] = new TaskBatchResultDTO(i, taskDTO.getId(), HttpStatus.BAD_REQUEST.value(), "Estado de tarea no válido: " + taskDTO.getStatus());
+            } else {
+                validIndexes.add(i);
+            }
+        }
+        executeInChunks(validIndexes, results, chunk -> {
+            // Una única consulta por bloque; las entidades modificadas se vuelcan como UPDATE en lote al hacer commit
+            Map<Long, Task> existing = taskRepository.findAllById(chunk.stream().map(index -> taskDTOs.get(index).getId()).toList())
+                    .stream()
+                    .collect(Collectors.toMap(Task::getId, Function.identity()));
+            List<TaskBatchResultDTO> chunkResults = new ArrayList<>(chunk.size());
+            List<Task> updatedTasks = new ArrayList<>(chunk.size());
+            List<String> previousStatuses = new ArrayList<>(chunk.size());
+            for (Integer index : chunk) {
+                TaskDTO taskDTO = taskDTOs.get(index);
+                Task task = existing.get(taskDTO.getId());
+                if (task == null) {
+                    chunkResults.add(new TaskBatchResultDTO(index, taskDTO.getId(), HttpStatus.NOT_FOUND.value(), "Tarea no encontrada con ID: " + taskDTO.getId()));
+                } else {
+                    String previousStatus = task.getStatus().getValue();
+                    task.setTitle(taskDTO.getTitle());
+                    task.setDescription(taskDTO.getDescription());
+                    task.setStatus(TaskMapper.toStatus(taskDTO.getStatus()));
+                    updatedTasks.add(task);
+                    previousStatuses.add(previousStatus);
+                    chunkResults.add(new TaskBatchResultDTO(index, task.getId(), HttpStatus.OK.value(), null));
+                }
+            }
+            // Con JPA las entidades ya están gestionadas y el flush vuelca los UPDATE en lote; el almacén en memoria
+            // (task-manager.storage.mode=memory) no tiene dirty checking y necesita la escritura explícita.
+            // Los eventos se publican después, cuando @Version ya tiene el valor nuevo
+            taskRepository.saveAllAndFlush(updatedTasks);
+            for (int i = 0; i < updatedTasks.size(); i++) {
+                eventPublisher.publishEvent(TaskChangeEvent.updated(TaskMapper.toDTO(updatedTasks.get(i)), previousStatuses.get(i)));
+            }
+            return chunkResults;
+        });
+        evictFromCache(taskDTOs.stream().filter(taskDTO -> taskDTO != null && taskDTO.getId() != null).map(TaskDTO::getId).toList());
+        return Arrays.asList(results);
+    }
+
+    // Borrar varias tareas por ID en transacciones por bloques
+    public List<TaskBatchResultDTO> deleteTasks(List<Long> ids) {
+        checkBatchSize(ids);
+        log.debug("Borrando {} tareas en lote", ids.size());
+        TaskBatchResultDTO[] results = new TaskBatchResultDTO[ids.size()];
+        List<Integer> validIndexes = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            if (ids.get(i) == null) {
+                results[i] = new TaskBatchResultDTO(i, null, HttpStatus.BAD_REQUEST.value(), "El ID de la tarea es obligatorio");
+            } else {
+                validIndexes.add(i);
+            }
+        }
+        executeInChunks(validIndexes, results, chunk -> {
+            Map<Long, TaskStatus> existing = taskRepository.findStatusesByIds(chunk.stream().map(ids::get).toList())
+                    .stream()
+                    .collect(Collectors.toMap(TaskIdStatus::id, TaskIdStatus::status));
+            if (!existing.isEmpty()) {
+                // Un único DELETE (o UPDATE en modo soft-delete) ... WHERE id IN (...) por bloque
+                if (softDelete) {
+                    taskRepository.softDeleteByIds(existing.keySet(), Instant.now());
+                } else {
+                    taskRepository.deleteAllByIdInBatch(existing.keySet());
+                }
+            }
+            List<TaskBatchResultDTO> chunkResults = new ArrayList<>(chunk.size());
+            for (Integer index : chunk) {
+                Long id = ids.get(index);
+                if (existing.containsKey(id)) {
+                    chunkResults.add(new TaskBatchResultDTO(index, id, HttpStatus.OK.value(), null));
+                    eventPublisher.publishEvent(TaskChangeEvent.deleted(id, existing.get(id).getValue()));
+                } else {
+                    chunkResults.add(new TaskBatchResultDTO(index, id, HttpStatus.NOT_FOUND.value(), "Tarea no encontrada con ID: " + id));
+                }
+            }
+            return chunkResults;
+        });
+        evictFromCache(ids.stream().filter(id -> id != null).toList());
+        return Arrays.asList(results);
+    }
+
+    // Ejecuta la operación en una transacción por bloque; si un bloque falla se reintenta
+    // elemento a elemento para que una fila errónea no invalide al resto
+    private void executeInChunks(List<Integer> indexes, TaskBatchResultDTO[] results,
+                                 Function<List<Integer>, List<TaskBatchResultDTO>> chunkOperation) {
+        for (int from = 0; from < indexes.size(); from += batchChunkSize) {
+            List<Integer> chunk = indexes.subList(from, Math.min(from + batchChunkSize, indexes.size()));
+            try {
+                storeResults(results, transactionTemplate.execute(status -> chunkOperation.apply(chunk)));
+            } catch (RuntimeException e) {
+                log.warn("Fallo en un bloque de {} elementos, se reintenta elemento a elemento: {}", chunk.size(), e.getMessage());
+                for (Integer index : chunk) {
+                    try {
+                        storeResults(results, transactionTemplate.execute(status -> chunkOperation.apply(List.of(index))));
+                    } catch (RuntimeException ex) {
+                        log.error("Error procesando el elemento {} del lote: {}", index, ex.getMessage());
+                        int status = ex instanceof DataIntegrityViolationException
+                                ? HttpStatus.CONFLICT.value()
+                                : HttpStatus.INTERNAL_SERVER_ERROR.value();
+                        results[index] = new TaskBatchResultDTO(index, null, status, ex.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    private void storeResults(TaskBatchResultDTO[] results, List<TaskBatchResultDTO> chunkResults) {
+        for (TaskBatchResultDTO result : chunkResults) {
+            results[result.getIndex()] = result;
+        }
+    }
+
+    // Sin filas afectadas: la tarea no existe o su versión no es la esperada
+    private RuntimeException notFoundOrVersionConflict(Long id, Long expectedVersion) {
+        if (expectedVersion != null && taskRepository.existsById(id)) {
+            return new TaskVersionConflictException("La tarea con ID: " + id + " ha cambiado desde la versión " + expectedVersion);
+        }
+        return new TaskNotFoundException("Tarea no encontrada con ID: " + id);
+    }
+
+    // Versión actual de una tarea que no cambia (PATCH con el estado que ya tenía), comprobando la esperada
+    private Long currentVersion(Long id, Long expectedVersion) {
+        TaskDTO current = taskRepository.findDTOById(id)
+                .orElseThrow(() -> new TaskNotFoundException("Tarea no encontrada con ID: " + id));
+        if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+            throw new TaskVersionConflictException("La tarea con ID: " + id + " ha cambiado desde la versión " + expectedVersion);
+        }
+        return expectedVersion != null ? current.getVersion() : null;
+    }
+
+    // Solo hay dos estados: una sentencia que cambia el estado a uno de ellos viene necesariamente del otro
+    private static TaskStatus otherStatus(TaskStatus status) {
+        return status == TaskStatus.PENDING ? TaskStatus.DONE : TaskStatus.PENDING;
+    }
+
+    private Set<String> parseFields(String fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!TaskFieldsDTO.SELECTABLE_FIELDS.contains(name)) {
+                throw new InvalidTaskDataException("Campo no válido en fields: " + name);
+            }
+            selected.add(name);
+        }
+        return selected;
+    }
+
+    private boolean isValidStatus(String status) {
+        try {
+            TaskMapper.toStatus(status);
+            return true;
+        } catch (InvalidTaskDataException e) {
+            return false;
+        }
+    }
+
+    private void checkBatchSize(Collection<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new InvalidTaskDataException("El lote no puede estar vacío");
+        }
+        if (items.size() > batchMaxItems) {
+            throw new InvalidTaskDataException("El lote no puede tener más de " + batchMaxItems + " elementos");
+        }
+    }
+
+    private void evictFromCache(Collection<Long> ids) {
+        Cache cache = cacheManager != null ? cacheManager.getCache(CacheConfig.TASKS_CACHE) : null;
+        if (cache != null) {
+            ids.forEach(cache::evict);
+        }
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1 || size > maxPageSize) {
+            throw new InvalidTaskDataException("El tamaño de página debe estar entre 1 y " + maxPageSize);
+        }
+        return size;
     }
 }
@@ -0,0 +1,85 @@
+package es.enterprise.task.manager.stats;
+
+import es.enterprise.task.manager.dto.TaskStatsDTO;
+import es.enterprise.task.manager.entity.TaskStatus;
+import es.enterprise.task.manager.event.TaskChangeEvent;
+import es.enterprise.task.manager.repository.TaskRepository;
+import es.enterprise.task.manager.repository.TaskStatusCount;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Contadores en memoria del número de tareas por estado, para responder GET /tasks/stats sin recorrer la tabla.
+// Se ajustan con cada TaskChangeEvent tras el commit y se cuadran periódicamente con un GROUP BY,
+// que corrige cualquier desviación (cambios concurrentes sobre la misma tarea, escrituras fuera de la aplicación...).
+@Component
+@Slf4j
+public class TaskStatistics {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    // Un contador por estado, indexado por el ordinal de TaskStatus
+    private final AtomicLongArray counts = new AtomicLongArray(TaskStatus.values().length);
+    private volatile Instant reconciledAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${task-manager.stats.reconcile-interval:5m}",
+            initialDelayString = "${task-manager.stats.reconcile-interval:5m}")
+    public void reconcile() {
+        long[] actual = new long[counts.length()];
+        for (TaskStatusCount statusCount : taskRepository.countByStatus()) {
+            actual[statusCount.status().ordinal()] = statusCount.count();
+        }
+        for (TaskStatus status : TaskStatus.values()) {
+            long previous = counts.getAndSet(status.ordinal(), actual[status.ordinal()]);
+            if (previous != actual[status.ordinal()]) {
+                log.debug("Contador de tareas {} corregido: {} -> {}", status.getValue(), previous, actual[status.ordinal()]);
+            }
+        }
+        reconciledAt = Instant.now();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChange(TaskChangeEvent event) {
+        switch (event.type()) {
+            case CREATED -> increment(event.task().getStatus(), 1);
+            case DELETED -> increment(event.previousStatus(), -1);
+            default -> {
+                // En PATCHED sin cambio de estado no hay estado anterior y no cambia nada
+                String newStatus = event.task().getStatus();
+                if (newStatus != null && event.previousStatus() != null && !newStatus.equals(event.previousStatus())) {
+                    increment(event.previousStatus(), -1);
+                    increment(newStatus, 1);
+                }
+            }
+        }
+    }
+
+    // Tiempo constante: solo se leen los contadores
+    public TaskStatsDTO getStats() {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        long total = 0;
+        for (TaskStatus status : TaskStatus.values()) {
+            long count = counts.get(status.ordinal());
+            byStatus.put(status.getValue(), count);
+            total += count;
+        }
+        return new TaskStatsDTO(total, byStatus, reconciledAt);
+    }
+
+    private void increment(String status, int delta) {
+        if (status != null) {
+            counts.addAndGet(TaskStatus.fromValue(status).ordinal(), delta);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package es.enterprise.task.manager.transfer;
+
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.exception.InvalidTaskDataException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Tareas en CSV (RFC 4180): una cabecera con los nombres de las columnas y una tarea por fila. Los campos con
+// comas, comillas o saltos de línea van entre comillas dobles, y las comillas interiores se duplican.
+// La exportación termina con el registro de cierre "#endOfExport,N", así que un fichero cortado se distingue de uno
+// completo. Al importar, el registro de cierre es opcional.
+public final class TaskCsv {
+
+    public static final String MEDIA_TYPE = "text/csv";
+    private static final String[] COLUMNS = {"id", "title", "description", "status", "version"};
+    private static final String END_MARKER = "#endOfExport";
+
+    private TaskCsv() {
+    }
+
+    public static void writeHeader(Writer writer) throws IOException {
+        writer.write(String.join(",", COLUMNS));
+        writer.write("\r\n");
+    }
+
+    public static void writeRow(Writer writer, TaskDTO task) throws IOException {
+        writeField(writer, task.getId() != null ? task.getId().toString() : null);
+        writer.write(',');
+        writeField(writer, task.getTitle());
+        writer.write(',');
+        writeField(writer, task.getDescription());
+        writer.write(',');
+        writeField(writer, task.getStatus());
+        writer.write(',');
+        writeField(writer, task.getVersion() != null ? task.getVersion().toString() : null);
+        writer.write("\r\n");
+    }
+
+    public static void writeEnd(Writer writer, long count) throws IOException {
+        writer.write(END_MARKER);
+        writer.write(',');
+        writer.write(Long.toString(count));
+        writer.write("\r\n");
+    }
+
+    private static void writeField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    // Lee las tareas fila a fila según se piden: solo hay en memoria la fila actual. Las columnas se identifican
+    // por la cabecera, así que pueden venir en cualquier orden y las que falten quedan a null.
+    public static TaskFileReader reader(Reader reader) {
+        return new TaskCsvIterator(reader);
+    }
+
+    private static class TaskCsvIterator implements TaskFileReader {
+
+        private final Reader reader;
+        private final int[] columnIndexes = new int[COLUMNS.length];
+        private final StringBuilder field = new StringBuilder();
+        private long line = 1;
+        private long row;
+        private List<String> next;
+        private Long endCount;
+
+        TaskCsvIterator(Reader reader) {
+            this.reader = reader;
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new InvalidTaskDataException("El CSV está vacío: falta la cabecera");
+            }
+            List<String> names = header.stream().map(String::trim).toList();
+            for (int column = 0; column < COLUMNS.length; column++) {
+                columnIndexes[column] = names.indexOf(COLUMNS[column]);
+            }
+            if (columnIndexes[1] < 0) {
+                throw new InvalidTaskDataException("La cabecera del CSV debe incluir la columna title");
+            }
+            next = readRow();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public TaskDTO next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            List<String> record = next;
+            row++;
+            TaskDTO task = new TaskDTO(parseLong(value(record, 0)), value(record, 1), value(record, 2), value(record, 3),
+                    parseLong(value(record, 4)));
+            next = readRow();
+            return task;
+        }
+
+        @Override
+        public Long endCount() {
+            return endCount;
+        }
+
+        // Siguiente fila de datos, o null al final del fichero o en el registro de cierre, que debe ser el último
+        private List<String> readRow() {
+            List<String> record = readRecord();
+            if (record == null || record.size() != 2 || !END_MARKER.equals(record.get(0))) {
+                return record;
+            }
+            endCount = parseLong(record.get(1));
+            if (readRecord() != null) {
+                throw new InvalidTaskDataException("Hay datos tras el registro de cierre en la línea " + line + " del CSV");
+            }
+            return null;
+        }
+
+        private String value(List<String> record, int column) {
+            int index = columnIndexes[column];
+            if (index < 0 || index >= record.size()) {
+                return null;
+            }
+            String value = record.get(index);
+            return value.isEmpty() ? null : value;
+        }
+
+        private Long parseLong(String value) {
+            try {
+                return value != null ? Long.valueOf(value.trim()) : null;
+            } catch (NumberFormatException e) {
+                throw new InvalidTaskDataException("Número no válido en la fila " + row + " del CSV: " + value);
+            }
+        }
+
+        // Siguiente registro, que puede ocupar varias líneas si tiene campos entre comillas; null al final.
+        // Las líneas vacías se ignoran
+        private List<String> readRecord() {
+            try {
+                List<String> record = new ArrayList<>(COLUMNS.length);
+                field.setLength(0);
+                boolean quoted = false;
+                boolean afterQuote = false;
+                int c;
+                while ((c = reader.read()) != -1) {
+                    if (quoted) {
+                        if (c == '"') {
+                            quoted = false;
+                            afterQuote = true;
+                        } else {
+                            if (c == '\n') {
+                                line++;
+                            }
+                            field.append((char) c);
+                        }
+                    } else if (c == '"') {
+                        if (afterQuote) {
+                            field.append('"'); // Comilla duplicada dentro de un campo entre comillas
+                        } else if (field.isEmpty()) {
+                            quoted = true;
+                            continue;
+                        } else {
+                            throw new InvalidTaskDataException("Comilla inesperada en la línea " + line + " del CSV");
+                        }
+                        quoted = true;
+                        afterQuote = false;
+                    } else if (c == ',') {
+                        record.add(field.toString());
+                        field.setLength(0);
+                        afterQuote = false;
+                    } else if (c == '\n' || c == '\r') {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        if (record.isEmpty() && field.isEmpty() && !afterQuote) {
+                            continue;
+                        }
+                        record.add(field.toString());
+                        return record;
+                    } else {
+                        if (afterQuote) {
+                            throw new InvalidTaskDataException("Texto tras las comillas de cierre en la línea " + line + " del CSV");
+                        }
+                        field.append((char) c);
+                    }
+                }
+                if (quoted) {
+                    throw new InvalidTaskDataException("Campo entre comillas sin cerrar al final del CSV");
+                }
+                if (record.isEmpty() && field.isEmpty() && !afterQuote) {
+                    return null;
+                }
+                record.add(field.toString());
+                return record;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package es.enterprise.task.manager.transfer;
+
+import es.enterprise.task.manager.dto.TaskDTO;
+
+import java.util.Iterator;
+
+// Lector de tareas de un fichero de exportación (NDJSON o CSV) que reconoce la línea de cierre de GET /tasks/export
+public interface TaskFileReader extends Iterator<TaskDTO> {
+
+    // Número de tareas que indica la línea de cierre, o null si el fichero no la tiene o aún no se ha leído
+    Long endCount();
+}
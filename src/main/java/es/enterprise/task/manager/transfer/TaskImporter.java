@@ -0,0 +1,115 @@
+package es.enterprise.task.manager.transfer;
+
+import es.enterprise.task.manager.dto.TaskBatchResultDTO;
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.dto.TaskImportResultDTO;
+import es.enterprise.task.manager.service.TaskService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+// Importación masiva de tareas (POST /tasks/import): las tareas se leen del cuerpo según se van pidiendo y se
+// escriben en bloques con TaskService.createTasks (una transacción con batching JDBC por bloque). En memoria solo
+// hay un bloque y las primeras filas rechazadas, sea cual sea el tamaño del fichero. Los bloques ya escritos se
+// mantienen aunque la lectura se interrumpa por un error de formato.
+// Si el fichero trae la línea de cierre de la exportación (TaskFileReader), su número de tareas debe coincidir con
+// las filas leídas; si no, la importación se marca como incompleta.
+// El alta usa createTasks, así que las tareas reciben IDs nuevos y versión 0: los IDs y versiones del fichero se
+// ignoran y una exportación seguida de una importación no conserva los IDs.
+@Component
+@Slf4j
+public class TaskImporter {
+
+    private final TaskService taskService;
+    private final int batchSize;
+    private final int maxErrors;
+    private final long progressInterval;
+    private final Counter createdRows;
+    private final Counter failedRows;
+
+    public TaskImporter(TaskService taskService, MeterRegistry meterRegistry,
+                        @Value("${task-manager.import.batch-size:500}") int batchSize,
+                        @Value("${task-manager.import.max-errors:100}") int maxErrors,
+                        @Value("${task-manager.import.progress-interval:100000}") long progressInterval) {
+        this.taskService = taskService;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+        this.progressInterval = progressInterval;
+        this.createdRows = meterRegistry.counter("task.import.rows", "result", "created");
+        this.failedRows = meterRegistry.counter("task.import.rows", "result", "failed");
+    }
+
+    public TaskImportResultDTO importTasks(Iterator<TaskDTO> tasks) {
+        long startNanos = System.nanoTime();
+        TaskImportResultDTO result = new TaskImportResultDTO(0, 0, 0, true, null, new ArrayList<>());
+        List<TaskDTO> batch = new ArrayList<>(batchSize);
+        long nextProgress = progressInterval;
+        while (true) {
+            TaskDTO task;
+            try {
+                if (!tasks.hasNext()) {
+                    break;
+                }
+                task = tasks.next();
+            } catch (RuntimeException e) {
+                // Error de formato en el cuerpo: no se puede saber dónde empieza la siguiente fila
+                log.warn("Importación interrumpida tras {} filas: {}", result.getTotal() + batch.size(), e.getMessage());
+                result.setCompleted(false);
+                result.setError(e.getMessage());
+                break;
+            }
+            batch.add(task);
+            if (batch.size() == batchSize) {
+                write(batch, result);
+                if (result.getTotal() >= nextProgress) {
+                    logProgress(result, startNanos);
+                    nextProgress += progressInterval;
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch, result);
+        }
+        if (result.isCompleted() && tasks instanceof TaskFileReader reader && reader.endCount() != null
+                && reader.endCount() != result.getTotal()) {
+            log.warn("Importación incompleta: el fichero indica {} tareas y se han leído {}", reader.endCount(), result.getTotal());
+            result.setCompleted(false);
+            result.setError("El fichero indica " + reader.endCount() + " tareas y se han leído " + result.getTotal());
+        }
+        logProgress(result, startNanos);
+        return result;
+    }
+
+    private void write(List<TaskDTO> batch, TaskImportResultDTO result) {
+        long offset = result.getTotal();
+        int created = 0;
+        for (TaskBatchResultDTO itemResult : taskService.createTasks(batch)) {
+            if (itemResult.getStatus() == HttpStatus.CREATED.value()) {
+                created++;
+            } else if (result.getErrors().size() < maxErrors) {
+                itemResult.setIndex((int) (offset + itemResult.getIndex()));
+                result.getErrors().add(itemResult);
+            }
+        }
+        int failed = batch.size() - created;
+        result.setTotal(offset + batch.size());
+        result.setCreated(result.getCreated() + created);
+        result.setFailed(result.getFailed() + failed);
+        createdRows.increment(created);
+        failedRows.increment(failed);
+        batch.clear();
+    }
+
+    private void logProgress(TaskImportResultDTO result, long startNanos) {
+        double seconds = Math.max((System.nanoTime() - startNanos) / 1_000_000_000.0, 0.001);
+        log.info("Importación: {} filas leídas, {} creadas, {} rechazadas ({} filas/s)",
+                result.getTotal(), result.getCreated(), result.getFailed(), Math.round(result.getTotal() / seconds));
+    }
+}
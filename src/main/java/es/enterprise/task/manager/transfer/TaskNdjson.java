@@ -0,0 +1,99 @@
+package es.enterprise.task.manager.transfer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.exception.InvalidTaskDataException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.NoSuchElementException;
+
+// Tareas en NDJSON: una tarea JSON por línea. La exportación termina con la línea de cierre
+// {"endOfExport":true,"count":N}, así que un fichero cortado (p. ej. por un timeout a mitad de la descarga) se
+// distingue de uno completo. Al importar, la línea de cierre es opcional.
+public final class TaskNdjson {
+
+    static final String END_FIELD = "endOfExport";
+    static final String COUNT_FIELD = "count";
+
+    private TaskNdjson() {
+    }
+
+    public static void writeEnd(JsonGenerator generator, long count) throws IOException {
+        generator.writeStartObject();
+        generator.writeBooleanField(END_FIELD, true);
+        generator.writeNumberField(COUNT_FIELD, count);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    // Lee las tareas línea a línea según se piden
+    public static TaskFileReader reader(ObjectMapper objectMapper, InputStream input) throws IOException {
+        return new TaskNdjsonIterator(objectMapper, objectMapper.readerFor(JsonNode.class).readValues(input));
+    }
+
+    private static class TaskNdjsonIterator implements TaskFileReader {
+
+        private final ObjectMapper objectMapper;
+        private final MappingIterator<JsonNode> nodes;
+        private long row;
+        private Long endCount;
+        private JsonNode next;
+        private boolean fetched;
+
+        TaskNdjsonIterator(ObjectMapper objectMapper, MappingIterator<JsonNode> nodes) {
+            this.objectMapper = objectMapper;
+            this.nodes = nodes;
+        }
+
+        // La línea se lee aquí, y no en next(), para que la de cierre termine la iteración sin contarse como tarea
+        @Override
+        public boolean hasNext() {
+            if (!fetched) {
+                next = readNode();
+                fetched = true;
+            }
+            return next != null;
+        }
+
+        @Override
+        public TaskDTO next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            JsonNode node = next;
+            fetched = false;
+            row++;
+            try {
+                return objectMapper.treeToValue(node, TaskDTO.class);
+            } catch (JsonProcessingException e) {
+                throw new InvalidTaskDataException("Tarea no válida en la fila " + row + " del NDJSON: " + e.getOriginalMessage());
+            }
+        }
+
+        @Override
+        public Long endCount() {
+            return endCount;
+        }
+
+        // Siguiente tarea, o null al final del fichero o en la línea de cierre, que debe ser la última
+        private JsonNode readNode() {
+            if (!nodes.hasNext()) {
+                return null;
+            }
+            JsonNode node = nodes.next();
+            if (!node.path(END_FIELD).asBoolean(false)) {
+                return node;
+            }
+            endCount = node.path(COUNT_FIELD).asLong(-1);
+            if (nodes.hasNext()) {
+                throw new InvalidTaskDataException("Hay datos tras la línea de cierre del NDJSON (fila " + (row + 2) + ")");
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package es.enterprise.task.manager.writebehind;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import es.enterprise.task.manager.dto.TaskBatchResultDTO;
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.dto.TaskWriteStatusDTO;
+import es.enterprise.task.manager.exception.InvalidTaskDataException;
+import es.enterprise.task.manager.exception.WriteQueueFullException;
+import es.enterprise.task.manager.mapper.TaskMapper;
+import es.enterprise.task.manager.service.TaskService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Altas en modo write-behind (POST /tasks/async): la petición solo valida la tarea y la deja en una cola acotada;
+// un hilo escritor la vacía en lotes con TaskService.createTasks, que escribe cada bloque en una transacción con
+// batching JDBC. Con la cola llena se responde 503 con Retry-After. Al parar la aplicación se dejan de aceptar
+// altas y se escriben las que queden en la cola antes de cerrar el pool de conexiones.
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "task-manager.write-behind.enabled", havingValue = "true")
+public class TaskWriteBehindQueue implements SmartLifecycle {
+
+    private final TaskService taskService;
+    private final BlockingQueue<PendingTask> queue;
+    private final int batchSize;
+    private final Duration maxDelay;
+    private final Duration shutdownTimeout;
+    // Estado de cada alta por ID de seguimiento; se olvida pasado status-ttl
+    private final Cache<String, TaskWriteStatusDTO> statuses;
+    private final Counter rejected;
+    private final Counter created;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    private record PendingTask(String trackingId, TaskDTO task) {
+    }
+
+    public TaskWriteBehindQueue(TaskService taskService, MeterRegistry meterRegistry,
+                                @Value("${task-manager.write-behind.capacity:10000}") int capacity,
+                                @Value("${task-manager.write-behind.batch-size:500}") int batchSize,
+                                @Value("${task-manager.write-behind.max-delay:50ms}") Duration maxDelay,
+                                @Value("${task-manager.write-behind.status-ttl:1h}") Duration statusTtl,
+                                @Value("${task-manager.write-behind.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        this.taskService = taskService;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.maxDelay = maxDelay;
+        this.shutdownTimeout = shutdownTimeout;
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(Math.max(capacity * 10L, 100_000L))
+                .expireAfterWrite(statusTtl)
+                .build();
+        Gauge.builder("task.writebehind.queue.size", queue, BlockingQueue::size)
+                .description("Altas pendientes de escribir en la base de datos")
+                .register(meterRegistry);
+        this.rejected = meterRegistry.counter("task.writebehind.rejections");
+        this.created = meterRegistry.counter("task.writebehind.writes", "result", "created");
+        this.failed = meterRegistry.counter("task.writebehind.writes", "result", "failed");
+    }
+
+    // Valida la tarea y la encola; devuelve el ID de seguimiento
+    public String submit(TaskDTO taskDTO) {
+        if (taskDTO == null || taskDTO.getTitle() == null || taskDTO.getTitle().isEmpty()) {
+            throw new InvalidTaskDataException("El título de la tarea no puede estar vacío");
+        }
+        TaskMapper.toStatus(taskDTO.getStatus());
+        if (!running) {
+            rejected.increment();
+            throw new WriteQueueFullException("La aplicación se está deteniendo y no acepta nuevas altas", 5);
+        }
+        String trackingId = UUID.randomUUID().toString();
+        // El estado se registra antes de encolar para que el escritor nunca lo sobrescriba con "queued"
+        statuses.put(trackingId, new TaskWriteStatusDTO(trackingId, TaskWriteStatusDTO.QUEUED, null, null));
+        if (!queue.offer(new PendingTask(trackingId, taskDTO))) {
+            statuses.invalidate(trackingId);
+            rejected.increment();
+            throw new WriteQueueFullException("La cola de altas está llena, inténtalo de nuevo más tarde", 1);
+        }
+        return trackingId;
+    }
+
+    public Optional<TaskWriteStatusDTO> getStatus(String trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(trackingId));
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("task-write-behind").daemon().start(this::drain);
+        log.info("Modo write-behind activo: cola de {} altas, lotes de {}", queue.remainingCapacity(), batchSize);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        log.info("Escribiendo las {} altas pendientes antes de detener la aplicación", queue.size());
+        try {
+            writer.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive() || !queue.isEmpty()) {
+            log.error("No se pudieron escribir {} altas pendientes en {}", queue.size(), shutdownTimeout);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Se detiene después del servidor web (incluida la espera de las peticiones en curso) y antes de que se
+    // cierren el EntityManagerFactory y el DataSource
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        List<PendingTask> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingTask first = queue.poll(maxDelay.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingTask> batch) {
+        List<TaskDTO> tasks = batch.stream().map(PendingTask::task).toList();
+        try {
+            List<TaskBatchResultDTO> results = taskService.createTasks(tasks);
+            for (TaskBatchResultDTO result : results) {
+                String trackingId = batch.get(result.getIndex()).trackingId();
+                if (result.getStatus() == HttpStatus.CREATED.value()) {
+                    statuses.put(trackingId, new TaskWriteStatusDTO(trackingId, TaskWriteStatusDTO.CREATED, result.getId(), null));
+                    created.increment();
+                } else {
+                    statuses.put(trackingId, new TaskWriteStatusDTO(trackingId, TaskWriteStatusDTO.FAILED, null, result.getError()));
+                    failed.increment();
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Error escribiendo un lote de {} altas: {}", batch.size(), e.getMessage());
+            for (PendingTask pending : batch) {
+                statuses.put(pending.trackingId(), new TaskWriteStatusDTO(pending.trackingId(), TaskWriteStatusDTO.FAILED, null, e.getMessage()));
+            }
+            failed.increment(batch.size());
+        }
+    }
+}
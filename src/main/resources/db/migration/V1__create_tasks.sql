@@ -0,0 +1,16 @@
+-- Esquema inicial de tareas. Compatible con PostgreSQL y H2.
+
+-- Incremento igual al allocationSize de Task: Hibernate reserva los IDs de 50 en 50
+create sequence task_seq start with 1 increment by 50;
+
+create table tasks (
+    id          bigint       not null,
+    title       varchar(100),
+    description varchar(500),
+    status      smallint     not null,
+    version     bigint,
+    constraint pk_tasks primary key (id)
+);
+
+-- Filtros por estado y paginación keyset dentro de un estado
+create index idx_tasks_status_id on tasks (status, id);
@@ -0,0 +1,14 @@
+-- Respuestas guardadas por Idempotency-Key, cuando task-manager.idempotency.persistent=true
+
+create table idempotency_keys (
+    idempotency_key varchar(300)     not null,
+    request_hash    varchar(64)      not null,
+    status          integer          not null,
+    content_type    varchar(100),
+    body            varchar(1000000),
+    expires_at      timestamp with time zone not null,
+    constraint pk_idempotency_keys primary key (idempotency_key)
+);
+
+-- Purga periódica de las claves caducadas
+create index idx_idempotency_keys_expires_at on idempotency_keys (expires_at);
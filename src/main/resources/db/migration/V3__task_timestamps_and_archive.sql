@@ -0,0 +1,23 @@
+-- Fecha de la última modificación (para archivar las tareas terminadas antiguas) y marca de borrado lógico.
+-- Compatible con PostgreSQL y H2.
+
+alter table tasks add column updated_at timestamp with time zone default current_timestamp not null;
+alter table tasks add column deleted_at timestamp with time zone;
+
+-- Búsqueda de tareas terminadas antiguas por el trabajo de archivado
+create index idx_tasks_status_updated_at on tasks (status, updated_at);
+-- Búsqueda de tareas borradas lógicamente pendientes de purgar
+create index idx_tasks_deleted_at on tasks (deleted_at);
+
+-- Tareas archivadas (task-manager.retention.mode=archive): fuera de la tabla que recorren las consultas
+create table tasks_archive (
+    id          bigint       not null,
+    title       varchar(100),
+    description varchar(500),
+    status      smallint     not null,
+    version     bigint,
+    updated_at  timestamp with time zone not null,
+    deleted_at  timestamp with time zone,
+    archived_at timestamp with time zone not null,
+    constraint pk_tasks_archive primary key (id)
+);
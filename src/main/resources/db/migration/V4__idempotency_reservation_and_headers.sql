@@ -0,0 +1,6 @@
+-- Reserva de cada Idempotency-Key en la propia tabla (la clave primaria hace de bloqueo entre instancias)
+-- y cabeceras de la respuesta que se repiten con ella. Compatible con PostgreSQL y H2.
+
+alter table idempotency_keys add column state varchar(20) default 'COMPLETED' not null;
+alter table idempotency_keys add column location varchar(2000);
+alter table idempotency_keys add column etag varchar(100);
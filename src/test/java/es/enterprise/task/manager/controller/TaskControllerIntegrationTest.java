@@ -0,0 +1,45 @@
+package es.enterprise.task.manager.controller;
+
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.service.TaskService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Peticiones condicionales con el repositorio JPA y la caché reales, sin mocks: las versiones las asigna Hibernate.
+// Se ejecuta con: mvn test -Pintegration-test
+@Tag("integration")
+@SpringBootTest
+@ActiveProfiles("it")
+public class TaskControllerIntegrationTest {
+
+    @Autowired
+    private TaskController taskController;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    public void testUpdateTask_ReturnedETagIsAcceptedByNextIfMatch() {
+        // Arrange
+        TaskDTO created = taskService.createTask(new TaskDTO(null, "Task A", "Description A", "pending"));
+        String etag = ETags.forTask(created.getVersion());
+
+        // Act
+        ResponseEntity<TaskDTO> first = taskController.updateTask(created.getId(),
+                new TaskDTO(null, "Task A v2", "Description A", "pending"), etag);
+        ResponseEntity<TaskDTO> second = taskController.updateTask(created.getId(),
+                new TaskDTO(null, "Task A v3", "Description A", "done"), first.getHeaders().getETag());
+
+        // Assert: la respuesta, la caché de GET /tasks/{id} y la base de datos llevan la misma versión
+        assertEquals(ETags.forTask(created.getVersion() + 1), first.getHeaders().getETag());
+        assertEquals(ETags.forTask(created.getVersion() + 2), second.getHeaders().getETag());
+        assertEquals(created.getVersion() + 2, second.getBody().getVersion());
+        assertEquals(created.getVersion() + 2, taskService.getTaskById(created.getId()).getVersion());
+    }
+}
@@ -1,22 +1,42 @@
 package es.enterprise.task.manager.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import es.enterprise.task.manager.configuration.AsyncConfig;
+import es.enterprise.task.manager.dto.TaskBatchResultDTO;
 import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.dto.TaskPageDTO;
+import es.enterprise.task.manager.repository.TaskCollectionVersion;
 import es.enterprise.task.manager.service.TaskService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +45,9 @@ public class TaskControllerTest {
     @Mock
     private TaskService taskService;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private TaskController taskController;
 
@@ -37,29 +60,146 @@ public class TaskControllerTest {
                 new TaskDTO(1L, "Task 1", "Description 1", "pending"),
                 new TaskDTO(2L, "Task 2", "Description 2", "done")
         );
+        when(taskService.getCollectionVersion()).thenReturn(new TaskCollectionVersion(2L, 2L, 0L));
         when(taskService.getAllTasks()).thenReturn(mockTasks);
 
         // Act
-        List<TaskDTO> tasks = taskController.getAllTasks().getBody();
+        ResponseEntity<List<TaskDTO>> response = taskController.getAllTasks(null);
+        List<TaskDTO> tasks = response.getBody();
 
         // Assert
         assertThat(tasks).hasSize(2);
         assertThat(tasks.get(0).getTitle()).isEqualTo("Task 1");
+        assertThat(response.getHeaders().getETag()).isEqualTo("W/\"c2-2-0\"");
+    }
+
+    @Test
+    public void testGetAllTasks_NotModified() {
+        // Arrange
+        when(taskService.getCollectionVersion()).thenReturn(new TaskCollectionVersion(2L, 2L, 0L));
+
+        // Act
+        ResponseEntity<List<TaskDTO>> response = taskController.getAllTasks("\"c2-2-0\"");
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        verify(taskService, never()).getAllTasks();
     }
+    @Test
+    public void testGetTasksPage() {
+        // Arrange
+        TaskPageDTO mockPage = new TaskPageDTO(
+                List.of(new TaskDTO(1L, "Task 1", "Description 1", "pending")), "MQ");
+        when(taskService.getTasksPage(null, 1, null, null)).thenReturn(mockPage);
+
+        // Act
+        TaskPageDTO page = taskController.getTasksPage(null, 1, null, null).getBody();
+
+        // Assert
+        assertThat(page).isNotNull();
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getNext()).isEqualTo("MQ");
+    }
+
+    @Test
+    public void testStreamAllTasksAsNdjson() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            Consumer<TaskDTO> consumer = invocation.getArgument(0);
+            consumer.accept(new TaskDTO(1L, "Task 1", "Description 1", "pending", 0L));
+            consumer.accept(new TaskDTO(2L, "Task 2", null, "done", 3L));
+            return null;
+        }).when(taskService).streamAllTasks(any());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = taskController.streamAllTasksAsNdjson();
+        response.getBody().writeTo(output);
+
+        // Assert
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "{\"id\":1,\"title\":\"Task 1\",\"description\":\"Description 1\",\"status\":\"pending\",\"version\":0}\n"
+                        + "{\"id\":2,\"title\":\"Task 2\",\"status\":\"done\",\"version\":3}\n");
+    }
+
+    @Test
+    public void testExportTasksAsNdjson_EndsWithCount() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            Consumer<TaskDTO> consumer = invocation.getArgument(0);
+            consumer.accept(new TaskDTO(1L, "Task 1", null, "pending", 0L));
+            return null;
+        }).when(taskService).streamAllTasks(any());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = taskController.exportTasksAsNdjson(new MockHttpServletRequest());
+        response.getBody().writeTo(output);
+
+        // Assert
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "{\"id\":1,\"title\":\"Task 1\",\"status\":\"pending\",\"version\":0}\n"
+                        + "{\"endOfExport\":true,\"count\":1}\n");
+    }
+
+    @Test
+    public void testExportTasksAsCsv() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            Consumer<TaskDTO> consumer = invocation.getArgument(0);
+            consumer.accept(new TaskDTO(1L, "Task 1", "Description, with comma", "pending", 0L));
+            consumer.accept(new TaskDTO(2L, "Task 2", null, "done", 3L));
+            return null;
+        }).when(taskService).streamAllTasks(any());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        ResponseEntity<StreamingResponseBody> response = taskController.exportTasksAsCsv(request);
+        response.getBody().writeTo(output);
+
+        // Assert
+        assertThat(response.getHeaders().getContentDisposition().getFilename()).isEqualTo("tasks.csv");
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,title,description,status,version\r\n"
+                        + "1,Task 1,\"Description, with comma\",pending,0\r\n"
+                        + "2,Task 2,,done,3\r\n"
+                        + "#endOfExport,2\r\n");
+        assertThat(request.getAttribute(AsyncConfig.TIMEOUT_ATTRIBUTE)).isNotNull();
+    }
+
     @Test
     public void testGetTaskById() {
         // Arrange
         Long taskId = 1L;
-        TaskDTO mockTask = new TaskDTO(taskId, "Task 1", "Description 1", "pending");
+        TaskDTO mockTask = new TaskDTO(taskId, "Task 1", "Description 1", "pending", 3L);
         when(taskService.getTaskById(taskId)).thenReturn(mockTask);
 
         // Act
-        TaskDTO task = taskController.getTaskById(taskId).getBody();
+        ResponseEntity<TaskDTO> response = taskController.getTaskById(taskId, null);
+        TaskDTO task = response.getBody();
 
         // Assert
         assertThat(task).isNotNull();
         assertThat(task.getId()).isEqualTo(taskId);
         assertThat(task.getTitle()).isEqualTo("Task 1");
+        assertThat(response.getHeaders().getETag()).isEqualTo("W/\"3\"");
+        assertThat(response.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT);
+    }
+
+    @Test
+    public void testGetTaskById_NotModified() {
+        // Arrange
+        Long taskId = 1L;
+        when(taskService.getTaskById(taskId)).thenReturn(new TaskDTO(taskId, "Task 1", "Description 1", "pending", 3L));
+
+        // Act
+        ResponseEntity<TaskDTO> response = taskController.getTaskById(taskId, "W/\"3\"");
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getBody()).isNull();
     }
     @Test
     public void testCreateTask() {
@@ -77,16 +217,37 @@ public class TaskControllerTest {
 
 
     }
+    @Test
+    public void testCreateTasks() {
+        // Arrange
+        List<TaskDTO> newTasks = Arrays.asList(
+                new TaskDTO(null, "Task 1", "Description 1", "pending"),
+                new TaskDTO(null, "Task 2", "Description 2", "pending")
+        );
+        List<TaskBatchResultDTO> mockResults = Arrays.asList(
+                new TaskBatchResultDTO(0, 1L, 201, null),
+                new TaskBatchResultDTO(1, 2L, 201, null)
+        );
+        when(taskService.createTasks(newTasks)).thenReturn(mockResults);
+
+        // Act
+        List<TaskBatchResultDTO> results = taskController.createTasks(newTasks).getBody();
+
+        // Assert
+        assertThat(results).hasSize(2);
+        assertThat(results.get(1).getId()).isEqualTo(2L);
+    }
+
     @Test
     public void testUpdateTask() {
         // Arrange
         Long taskId = 1L;
         TaskDTO updatedTask = new TaskDTO(null, "Updated Task", "Updated Description", "done");
         TaskDTO returnedTask = new TaskDTO(taskId, "Updated Task", "Updated Description", "done");
-        when(taskService.updateTask(taskId, updatedTask)).thenReturn(returnedTask);
+        when(taskService.updateTask(taskId, updatedTask, 4L)).thenReturn(returnedTask);
 
         // Act
-        TaskDTO task = taskController.updateTask(taskId, updatedTask).getBody();
+        TaskDTO task = taskController.updateTask(taskId, updatedTask, "\"4\"").getBody();
 
         // Assert
         assertThat(task).isNotNull();
@@ -94,6 +255,22 @@ public class TaskControllerTest {
         assertThat(task.getStatus()).isEqualTo("done");
     }
 
+    @Test
+    public void testPatchTask() throws Exception {
+        // Arrange
+        when(taskService.patchTask(1L, Map.of("status", "done"), 2L)).thenReturn(3L);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(taskController).build();
+
+        // Act & Assert
+        mockMvc.perform(patch("/tasks/{id}", 1L)
+                        .contentType("application/merge-patch+json")
+                        .header("If-Match", "W/\"2\"")
+                        .content("{\"status\":\"done\"}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("ETag", "W/\"3\""));
+    }
+
     @Test
     public void testDeleteTask_Success() throws Exception {
         // Arrange
@@ -115,18 +292,21 @@ public class TaskControllerTest {
     public void testGetTasksByStatus() {
         // Arrange
         String status = "pending";
+        Pageable pageable = PageRequest.of(0, 50);
         List<TaskDTO> mockTasks = Arrays.asList(
                 new TaskDTO(1L, "Task 1", "Description 1", "pending"),
                 new TaskDTO(2L, "Task 2", "Description 2", "pending")
         );
-        when(taskService.getTasksByStatus(status)).thenReturn(mockTasks);
+        when(taskService.getTasksByStatus(status, pageable)).thenReturn(new PageImpl<>(mockTasks, pageable, 2));
 
         // Act
-        List<TaskDTO> tasks = taskController.getTasksByStatus(status).getBody();
+        PagedModel<TaskDTO> tasks = taskController.getTasksByStatus(status, pageable).getBody();
 
         // Assert
-        assertThat(tasks).hasSize(2);
-        assertThat(tasks.get(0).getStatus()).isEqualTo("pending");
+        assertThat(tasks).isNotNull();
+        assertThat(tasks.getContent()).hasSize(2);
+        assertThat(tasks.getContent().get(0).getStatus()).isEqualTo("pending");
+        assertThat(tasks.getMetadata().totalElements()).isEqualTo(2);
     }
 
 
@@ -0,0 +1,135 @@
+package es.enterprise.task.manager.event;
+
+import es.enterprise.task.manager.dto.TaskChangeDTO;
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.exception.ChangesExpiredException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskChangeFeedTest {
+
+    private TaskChangeFeed taskChangeFeed;
+
+    @BeforeEach
+    public void setUp() {
+        taskChangeFeed = new TaskChangeFeed(3, 100);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPoll_ReturnsChangesSinceSequence() {
+        // Arrange
+        taskChangeFeed.onTaskChange(TaskChangeEvent.created(new TaskDTO(1L, "Task 1", "Description 1", "pending")));
+        taskChangeFeed.onTaskChange(TaskChangeEvent.deleted(1L, "pending"));
+
+        // Act
+        DeferredResult<List<TaskChangeDTO>> result = taskChangeFeed.poll(1, 100, 1000);
+
+        // Assert
+        List<TaskChangeDTO> changes = (List<TaskChangeDTO>) result.getResult();
+        assertEquals(1, changes.size());
+        assertEquals(2, changes.get(0).getSequence());
+        assertEquals("DELETED", changes.get(0).getType());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPoll_WaitsForNextChange() {
+        // Act
+        DeferredResult<List<TaskChangeDTO>> result = taskChangeFeed.poll(0, 100, 1000);
+        assertFalse(result.hasResult());
+        taskChangeFeed.onTaskChange(TaskChangeEvent.created(new TaskDTO(1L, "Task 1", "Description 1", "pending")));
+
+        // Assert
+        List<TaskChangeDTO> changes = (List<TaskChangeDTO>) result.getResult();
+        assertEquals(1, changes.size());
+        assertEquals(1L, changes.get(0).getId());
+    }
+
+    @Test
+    public void testPoll_ExpiredSequence() {
+        // Arrange: con capacidad 3, tras 5 cambios solo quedan las secuencias 3, 4 y 5
+        for (long id = 1; id <= 5; id++) {
+            taskChangeFeed.onTaskChange(TaskChangeEvent.deleted(id, "pending"));
+        }
+
+        // Act & Assert
+        assertThrows(ChangesExpiredException.class, () -> taskChangeFeed.poll(1, 100, 1000));
+        assertEquals(5, taskChangeFeed.getLastSequence());
+    }
+
+    @Test
+    public void testPoll_SequenceAfterLastOne() {
+        // Arrange: un cliente que reanuda con una secuencia de antes de un reinicio
+        taskChangeFeed.onTaskChange(TaskChangeEvent.deleted(1L, "pending"));
+
+        // Act & Assert
+        assertThrows(ChangesExpiredException.class, () -> taskChangeFeed.poll(7, 100, 1000));
+        assertThrows(ChangesExpiredException.class, () -> taskChangeFeed.subscribe(7L, 1000));
+        assertEquals(1, taskChangeFeed.getLastSequence());
+    }
+
+    @Test
+    public void testSubscribe_SlowClientDoesNotDelayOthers() throws InterruptedException {
+        // Arrange: el cliente lento se suscribe primero y su primer envío no termina
+        taskChangeFeed = new TaskChangeFeed(10, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch slowCompleted = new CountDownLatch(1);
+        Semaphore fastReceived = new Semaphore(0);
+        List<String> fastIds = new CopyOnWriteArrayList<>();
+        SseEmitter slow = new SseEmitter(0L) {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public synchronized void complete() {
+                slowCompleted.countDown();
+                super.complete();
+            }
+        };
+        SseEmitter fast = new SseEmitter(0L) {
+            @Override
+            public void send(SseEventBuilder builder) {
+                String event = builder.build().iterator().next().getData().toString();
+                fastIds.add(event.substring(event.indexOf("id:") + 3, event.indexOf('\n', event.indexOf("id:"))));
+                fastReceived.release();
+            }
+        };
+        taskChangeFeed.subscribe(slow, null);
+        taskChangeFeed.subscribe(fast, null);
+
+        try {
+            // Act
+            for (long id = 1; id <= 4; id++) {
+                taskChangeFeed.onTaskChange(TaskChangeEvent.deleted(id, "pending"));
+                // El cliente rápido recibe cada cambio aunque el lento siga sin terminar el primero
+                assertTrue(fastReceived.tryAcquire(5, TimeUnit.SECONDS));
+            }
+
+            // Assert
+            assertEquals(List.of("1", "2", "3", "4"), fastIds);
+            // Con una cola de 2 cambios, el cliente lento se desconecta en lugar de acumular el resto
+            assertTrue(slowCompleted.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            taskChangeFeed.shutdown();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package es.enterprise.task.manager.filter;
+
+import es.enterprise.task.manager.entity.IdempotencyRecord;
+import es.enterprise.task.manager.idempotency.IdempotencyStore;
+import es.enterprise.task.manager.repository.IdempotencyRecordRepository;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class IdempotencyFilterTest {
+
+    private IdempotencyFilter filter;
+    private AtomicInteger invocations;
+    // Número de ejecuciones que se rechazan con 429, como haría RateLimitInterceptor
+    private AtomicInteger throttled;
+
+    @BeforeEach
+    public void setUp() {
+        filter = new IdempotencyFilter(new IdempotencyStore(Duration.ofHours(1), Duration.ofMinutes(5), 100, false), "X-Client-Id");
+        invocations = new AtomicInteger();
+        throttled = new AtomicInteger();
+    }
+
+    @Test
+    public void testRetryReplaysStoredResponse() throws Exception {
+        // Act
+        MockHttpServletResponse first = execute(request("key-1", "{\"title\":\"Task\"}"));
+        MockHttpServletResponse retry = execute(request("key-1", "{\"title\":\"Task\"}"));
+
+        // Assert
+        assertEquals(1, invocations.get());
+        assertEquals(201, first.getStatus());
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(201, retry.getStatus());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals("application/json", retry.getContentType());
+        assertEquals("/tasks/1", retry.getHeader("Location"));
+        assertEquals("W/\"0\"", retry.getHeader("ETag"));
+    }
+
+    @Test
+    public void testSameKeyWithDifferentBody_Returns422() throws Exception {
+        // Arrange
+        execute(request("key-1", "{\"title\":\"Task\"}"));
+
+        // Act
+        MockHttpServletResponse response = execute(request("key-1", "{\"title\":\"Other\"}"));
+
+        // Assert
+        assertEquals(422, response.getStatus());
+        assertEquals(1, invocations.get());
+    }
+
+    @Test
+    public void testServerErrorIsNotStored() throws Exception {
+        // Act
+        execute(request("key-1", "fail"));
+        execute(request("key-1", "fail"));
+
+        // Assert: el reintento vuelve a ejecutar la operación
+        assertEquals(2, invocations.get());
+    }
+
+    @Test
+    public void testRateLimitedResponseIsNotStored() throws Exception {
+        // Arrange: la primera ejecución la rechaza el limitador con 429
+        throttled.set(1);
+
+        // Act
+        MockHttpServletResponse first = execute(request("key-1", "{\"title\":\"Task\"}"));
+        MockHttpServletResponse retry = execute(request("key-1", "{\"title\":\"Task\"}"));
+        MockHttpServletResponse replay = execute(request("key-1", "{\"title\":\"Task\"}"));
+
+        // Assert: el reintento se ejecuta y es su respuesta la que se repite después
+        assertEquals(429, first.getStatus());
+        assertEquals(201, retry.getStatus());
+        assertNull(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(201, replay.getStatus());
+        assertEquals("true", replay.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(2, invocations.get());
+    }
+
+    @Test
+    public void testValidationErrorIsStored() throws Exception {
+        // Act
+        execute(request("key-1", "invalid"));
+        MockHttpServletResponse retry = execute(request("key-1", "invalid"));
+
+        // Assert
+        assertEquals(400, retry.getStatus());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1, invocations.get());
+    }
+
+    @Test
+    public void testKeysAreScopedToTheClient() throws Exception {
+        // Arrange
+        MockHttpServletRequest other = request("key-1", "{\"title\":\"Other\"}");
+        other.addHeader("X-Client-Id", "client-b");
+        MockHttpServletRequest otherIp = request("key-1", "{\"title\":\"Other\"}");
+        otherIp.setRemoteAddr("10.0.0.2");
+        execute(request("key-1", "{\"title\":\"Task\"}"));
+
+        // Act
+        MockHttpServletResponse response = execute(other);
+        MockHttpServletResponse responseFromOtherIp = execute(otherIp);
+
+        // Assert: la misma clave de otro cliente no se compara con la del primero
+        assertEquals(201, response.getStatus());
+        assertNull(response.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(201, responseFromOtherIp.getStatus());
+        assertEquals(3, invocations.get());
+    }
+
+    @Test
+    public void testPersistentKeyReservedByAnotherInstance_Returns409() throws Exception {
+        // Arrange: la fila de la clave ya existe (IN_PROGRESS) y la inserción de la reserva falla
+        IdempotencyRecordRepository repository = persistentStore();
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+        when(repository.insertInProgress(anyString(), anyString(), any())).thenThrow(new DuplicateKeyException("pk_idempotency_keys"));
+
+        // Act
+        MockHttpServletResponse response = execute(request("key-1", "{\"title\":\"Task\"}"));
+
+        // Assert
+        assertEquals(409, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertEquals(0, invocations.get());
+        verify(repository, never()).deleteByKeyAndState(anyString(), any());
+    }
+
+    @Test
+    public void testPersistentReservationIsCompletedOrReleased() throws Exception {
+        // Arrange
+        IdempotencyRecordRepository repository = persistentStore();
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+
+        // Act
+        execute(request("key-1", "{\"title\":\"Task\"}"));
+        execute(request("key-2", "fail"));
+
+        // Assert: la respuesta guardada completa la fila; la del 500 libera la reserva
+        verify(repository, times(2)).insertInProgress(anyString(), anyString(), any());
+        verify(repository).save(argThat(record -> record.getState() == IdempotencyRecord.State.COMPLETED
+                && "/tasks/1".equals(record.getLocation())));
+        verify(repository).deleteByKeyAndState(anyString(), eq(IdempotencyRecord.State.IN_PROGRESS));
+    }
+
+    @Test
+    public void testRequestsWithoutKeyAreNotFiltered() throws Exception {
+        // Act
+        execute(request(null, "{\"title\":\"Task\"}"));
+        execute(request(null, "{\"title\":\"Task\"}"));
+
+        // Assert
+        assertEquals(2, invocations.get());
+    }
+
+    private IdempotencyRecordRepository persistentStore() {
+        IdempotencyStore store = new IdempotencyStore(Duration.ofHours(1), Duration.ofMinutes(5), 100, true);
+        IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+        ReflectionTestUtils.setField(store, "idempotencyRecordRepository", repository);
+        filter = new IdempotencyFilter(store, "X-Client-Id");
+        return repository;
+    }
+
+    private MockHttpServletRequest request(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/tasks");
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        }
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private MockHttpServletResponse execute(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new CreateTaskServlet()));
+        return response;
+    }
+
+    // Simula POST /tasks: responde con el cuerpo recibido y un id distinto en cada ejecución
+    private class CreateTaskServlet extends HttpServlet {
+
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            int id = invocations.incrementAndGet();
+            String body = new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            if ("fail".equals(body)) {
+                response.setStatus(500);
+                return;
+            }
+            if (throttled.getAndDecrement() > 0) {
+                response.setStatus(429);
+                return;
+            }
+            if ("invalid".equals(body)) {
+                response.setStatus(400);
+                return;
+            }
+            response.setStatus(201);
+            response.setHeader("Location", "/tasks/" + id);
+            response.setHeader("ETag", "W/\"0\"");
+            response.setContentType("application/json");
+            response.getWriter().write("{\"id\":" + id + "}");
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package es.enterprise.task.manager.load;
+
+import es.enterprise.task.manager.TaskManagerApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Prueba de carga: compara throughput y latencia p99 entre el pool de hilos de plataforma y los hilos virtuales.
+// Se ejecuta con: mvn test -Pload-test
+@Tag("load")
+@Slf4j
+public class ExecutionModeLoadTest {
+
+    private static final int WARMUP_REQUESTS = 2_000;
+    private static final int REQUESTS = 20_000;
+    private static final int CONCURRENCY = 1_000;
+
+    @Test
+    public void testCompareExecutionModes() throws Exception {
+        LoadResult platform = run(false);
+        LoadResult virtual = run(true);
+
+        log.info("{}", platform);
+        log.info("{}", virtual);
+
+        assertThat(platform.errors()).isZero();
+        assertThat(virtual.errors()).isZero();
+    }
+
+    private LoadResult run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskManagerApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+                        // Sin caché, cada petición llega al repositorio
+                        "task-manager.cache.enabled=false",
+                        // Se mide el servidor, no la limitación de peticiones
+                        "task-manager.rate-limit.enabled=false",
+                        "logging.level.es.enterprise.task.manager=WARN",
+                        "logging.level.es.enterprise.task.manager.load=INFO")
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            try (HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build()) {
+                HttpRequest create = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/tasks"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Load\",\"description\":\"Load test\",\"status\":\"pending\"}"))
+                        .build();
+                client.send(create, HttpResponse.BodyHandlers.discarding());
+                HttpRequest page = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/tasks/page?size=20")).GET().build();
+
+                fire(client, page, WARMUP_REQUESTS);
+                long start = System.nanoTime();
+                long[] latencies = new long[REQUESTS];
+                int errors = fire(client, page, REQUESTS, latencies);
+                double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+                Arrays.sort(latencies);
+                return new LoadResult(virtualThreads ? "virtual" : "platform",
+                        REQUESTS / elapsedSeconds,
+                        latencies[(int) (REQUESTS * 0.50)] / 1_000_000.0,
+                        latencies[(int) (REQUESTS * 0.99)] / 1_000_000.0,
+                        errors);
+            }
+        }
+    }
+
+    private int fire(HttpClient client, HttpRequest request, int requests) throws Exception {
+        return fire(client, request, requests, new long[requests]);
+    }
+
+    // Lanza las peticiones con como máximo CONCURRENCY en vuelo y devuelve el número de errores
+    private int fire(HttpClient client, HttpRequest request, int requests, long[] latencies) throws Exception {
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        AtomicInteger errors = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                inFlight.acquire();
+                futures.add(executor.submit(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    } finally {
+                        latencies[index] = System.nanoTime() - start;
+                        inFlight.release();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return errors.get();
+    }
+
+    record LoadResult(String mode, double throughput, double p50Millis, double p99Millis, int errors) {
+        @Override
+        public String toString() {
+            return String.format("%-8s throughput=%.0f req/s p50=%.2f ms p99=%.2f ms errors=%d",
+                    mode, throughput, p50Millis, p99Millis, errors);
+        }
+    }
+}
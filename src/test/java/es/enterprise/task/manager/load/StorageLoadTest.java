@@ -0,0 +1,102 @@
+package es.enterprise.task.manager.load;
+
+import es.enterprise.task.manager.TaskManagerApplication;
+import es.enterprise.task.manager.dto.TaskBatchResultDTO;
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.dto.TaskPageDTO;
+import es.enterprise.task.manager.service.TaskService;
+import es.enterprise.task.manager.stats.TaskStatistics;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Prueba de carga de las rutas de TaskRepository sobre una base de datos en fichero (perfil "it"),
+// con una tabla de tamaño realista en lugar de unas pocas filas en memoria.
+// Se ejecuta con: mvn test -Pload-test
+@Tag("load")
+@Slf4j
+public class StorageLoadTest {
+
+    private static final int TASKS = 100_000;
+    private static final int BATCH_SIZE = 10_000;
+    private static final int PAGE_SIZE = 100;
+
+    @Test
+    public void testRepositoryPathsOnFileDatabase() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskManagerApplication.class)
+                .profiles("it")
+                .properties(
+                        "server.port=0",
+                        "task-manager.cache.enabled=false",
+                        "logging.level.es.enterprise.task.manager=WARN",
+                        "logging.level.es.enterprise.task.manager.load=INFO")
+                .run()) {
+            TaskService taskService = context.getBean(TaskService.class);
+
+            long start = System.nanoTime();
+            for (int from = 0; from < TASKS; from += BATCH_SIZE) {
+                List<TaskDTO> batch = new ArrayList<>(BATCH_SIZE);
+                for (int i = from; i < from + BATCH_SIZE; i++) {
+                    batch.add(new TaskDTO(null, "Task " + i, "Description of task " + i, i % 3 == 0 ? "done" : "pending"));
+                }
+                List<TaskBatchResultDTO> results = taskService.createTasks(batch);
+                assertThat(results).allMatch(result -> result.getStatus() == 201);
+            }
+            report("batch insert", TASKS, start);
+
+            start = System.nanoTime();
+            int pages = 0;
+            String cursor = null;
+            do {
+                TaskPageDTO page = taskService.getTasksPage(cursor, PAGE_SIZE, null, null);
+                cursor = page.getNext();
+                pages++;
+            } while (cursor != null);
+            report("keyset pages", pages, start);
+
+            start = System.nanoTime();
+            pages = 0;
+            cursor = null;
+            do {
+                TaskPageDTO page = taskService.getTasksPage(cursor, PAGE_SIZE, null, "id,title,status");
+                cursor = page.getNext();
+                pages++;
+            } while (cursor != null);
+            report("keyset pages (fields)", pages, start);
+
+            start = System.nanoTime();
+            for (int page = 0; page < 100; page++) {
+                taskService.getTasksByStatus("pending", PageRequest.of(page, PAGE_SIZE, Sort.by("id")));
+            }
+            report("status pages", 100, start);
+
+            start = System.nanoTime();
+            AtomicLong streamed = new AtomicLong();
+            taskService.streamAllTasks(task -> streamed.incrementAndGet());
+            report("stream", streamed.get(), start);
+
+            start = System.nanoTime();
+            TaskStatistics taskStatistics = context.getBean(TaskStatistics.class);
+            taskStatistics.reconcile();
+            report("stats reconcile", 1, start);
+
+            assertThat(streamed.get()).isEqualTo(TASKS);
+            assertThat(taskStatistics.getStats().getTotal()).isEqualTo(TASKS);
+        }
+    }
+
+    private void report(String operation, long count, long startNanos) {
+        double millis = (System.nanoTime() - startNanos) / 1_000_000.0;
+        log.info(String.format("%-22s count=%d total=%.0f ms avg=%.3f ms", operation, count, millis, millis / count));
+    }
+}
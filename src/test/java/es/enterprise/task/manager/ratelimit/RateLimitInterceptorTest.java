@@ -0,0 +1,142 @@
+package es.enterprise.task.manager.ratelimit;
+
+import es.enterprise.task.manager.exception.ConcurrencyLimitExceededException;
+import es.enterprise.task.manager.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitInterceptorTest {
+
+    private RateLimitProperties properties;
+    private MeterRegistry meterRegistry;
+    private RateLimitInterceptor interceptor;
+    private HandlerMethod handler;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        properties = new RateLimitProperties();
+        properties.setRead(new RateLimitProperties.Limits(0.0, 0, 1.0, 2, 1, 0, Duration.ofMillis(100)));
+        properties.setWrite(new RateLimitProperties.Limits(0.0, 0, 0.0, 0, 1, 1, Duration.ofMillis(100)));
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new RateLimitInterceptor(properties, meterRegistry);
+        handler = new HandlerMethod(new Object(), Object.class.getMethod("toString"));
+    }
+
+    @Test
+    public void testPreHandle_PerClientRateLimit() {
+        // Act
+        interceptor.preHandle(request("GET", "10.0.0.1"), new MockHttpServletResponse(), handler);
+        interceptor.preHandle(request("GET", "10.0.0.1"), new MockHttpServletResponse(), handler);
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+                () -> interceptor.preHandle(request("GET", "10.0.0.1"), new MockHttpServletResponse(), handler));
+
+        // Assert: otro cliente tiene su propio cubo
+        assertTrue(ex.getRetryAfterSeconds() >= 1);
+        assertTrue(interceptor.preHandle(request("GET", "10.0.0.2"), new MockHttpServletResponse(), handler));
+        assertEquals(1.0, meterRegistry.get("task.ratelimit.rejections").tag("reason", "client-rate").counter().count());
+    }
+
+    @Test
+    public void testPreHandle_RetryAfterFollowsBucketRefill() {
+        // Arrange: un token cada 10 segundos por cliente
+        properties.getRoutes().put("toString", new RateLimitProperties.Limits(0.0, 0, 0.1, 1, 1, 0, Duration.ofMillis(100)));
+        interceptor = new RateLimitInterceptor(properties, meterRegistry);
+        interceptor.preHandle(request("GET", "10.0.0.1"), new MockHttpServletResponse(), handler);
+
+        // Act
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+                () -> interceptor.preHandle(request("GET", "10.0.0.1"), new MockHttpServletResponse(), handler));
+
+        // Assert
+        assertTrue(ex.getRetryAfterSeconds() >= 9 && ex.getRetryAfterSeconds() <= 10);
+    }
+
+    @Test
+    public void testPreHandle_ConcurrencyLimitIsReleasedOnCompletion() {
+        // Arrange
+        MockHttpServletRequest first = request("POST", "10.0.0.1");
+        interceptor.preHandle(first, new MockHttpServletResponse(), handler);
+
+        // Act & Assert
+        assertThrows(ConcurrencyLimitExceededException.class,
+                () -> interceptor.preHandle(request("POST", "10.0.0.1"), new MockHttpServletResponse(), handler));
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), handler, null);
+        assertTrue(interceptor.preHandle(request("POST", "10.0.0.1"), new MockHttpServletResponse(), handler));
+    }
+
+    @Test
+    public void testPreHandle_SameMethodNameInAnotherClassHasItsOwnLimits() throws Exception {
+        // Arrange
+        HandlerMethod otherHandler = new HandlerMethod("other", String.class.getMethod("toString"));
+        interceptor.preHandle(request("GET", "10.0.0.1"), new MockHttpServletResponse(), handler);
+        interceptor.preHandle(request("GET", "10.0.0.1"), new MockHttpServletResponse(), handler);
+
+        // Act & Assert
+        assertThrows(RateLimitExceededException.class,
+                () -> interceptor.preHandle(request("GET", "10.0.0.1"), new MockHttpServletResponse(), handler));
+        assertTrue(interceptor.preHandle(request("GET", "10.0.0.1"), new MockHttpServletResponse(), otherHandler));
+        assertEquals(1.0, meterRegistry.get("task.ratelimit.rejections")
+                .tag("route", "Object.toString").tag("reason", "client-rate").counter().count());
+    }
+
+    @Test
+    public void testPreHandle_ClassifiesEachRequestByHttpMethod() {
+        // Arrange: la primera petición a la ruta es una lectura
+        interceptor.preHandle(request("GET", "10.0.0.1"), new MockHttpServletResponse(), handler);
+
+        // Act & Assert: las escrituras a la misma ruta usan los límites de write (una en curso como máximo)
+        interceptor.preHandle(request("POST", "10.0.0.1"), new MockHttpServletResponse(), handler);
+        assertThrows(ConcurrencyLimitExceededException.class,
+                () -> interceptor.preHandle(request("DELETE", "10.0.0.1"), new MockHttpServletResponse(), handler));
+        assertTrue(interceptor.preHandle(request("HEAD", "10.0.0.1"), new MockHttpServletResponse(), handler));
+        assertEquals(1.0, meterRegistry.get("task.ratelimit.rejections")
+                .tag("access", "write").tag("reason", "concurrency").counter().count());
+    }
+
+    @Test
+    public void testAdaptiveConcurrencyLimiter_DecreasesWhenSlow() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 10, TimeUnit.MILLISECONDS.toNanos(100));
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(TimeUnit.SECONDS.toNanos(1));
+        }
+
+        // Assert
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(TimeUnit.SECONDS.toNanos(1), limiter.estimatedWaitNanos());
+    }
+
+    @Test
+    public void testTokenBucket_Refills() {
+        // Arrange
+        long[] now = {0};
+        TokenBucket bucket = new TokenBucket(10, 1, () -> now[0]);
+
+        // Act & Assert
+        assertEquals(0, bucket.tryConsume());
+        long wait = bucket.tryConsume();
+        assertTrue(wait > TimeUnit.MILLISECONDS.toNanos(99) && wait <= TimeUnit.MILLISECONDS.toNanos(101));
+        now[0] = TimeUnit.MILLISECONDS.toNanos(200);
+        assertEquals(0, bucket.tryConsume());
+    }
+
+    private MockHttpServletRequest request(String method, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/tasks");
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
@@ -0,0 +1,110 @@
+package es.enterprise.task.manager.repository;
+
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.service.TaskService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Caché de segundo nivel y caché de consultas de Hibernate con transacciones reales (sin @Transactional en la prueba),
+// incluida la invalidación tras actualizaciones masivas. Se ejecuta con: mvn test -Pintegration-test
+@Tag("integration")
+@SpringBootTest(properties = "task-manager.cache.enabled=false")
+@ActiveProfiles("it")
+public class SecondLevelCacheIntegrationTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private List<Long> ids;
+
+    @BeforeEach
+    public void setUp() throws InterruptedException {
+        taskRepository.deleteAllInBatch();
+        ids = taskService.createTasks(List.of(
+                new TaskDTO(null, "Task A", "Description A", "pending"),
+                new TaskDTO(null, "Task B", "Description B", "done"),
+                new TaskDTO(null, "Task C", "Description C", "pending")
+        )).stream().map(result -> result.getId()).toList();
+        // Un resultado guardado en el mismo milisegundo que la última escritura en la tabla se considera caducado
+        Thread.sleep(5);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void testGetTasksByStatus_RepeatedReadUsesQueryCache() {
+        // Act
+        getPendingTitles();
+        long statements = statistics.getPrepareStatementCount();
+        List<String> titles = getPendingTitles();
+
+        // Assert
+        assertEquals(List.of("Task A", "Task C"), titles);
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testGetTasksByStatus_BulkUpdateInvalidatesQueryCache() {
+        // Arrange
+        getPendingTitles();
+
+        // Act
+        taskService.updateTaskStatus(ids.get(0), "done");
+        List<String> titles = getPendingTitles();
+
+        // Assert
+        assertEquals(List.of("Task C"), titles);
+        assertEquals(0, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    public void testFindById_RepeatedLoadUsesEntityCache() {
+        // Act
+        taskRepository.findById(ids.get(1));
+        long statements = statistics.getPrepareStatementCount();
+        taskRepository.findById(ids.get(1));
+
+        // Assert
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 1);
+        assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testFindById_BulkUpdateEvictsEntityCache() {
+        // Arrange
+        taskRepository.findById(ids.get(0));
+
+        // Act
+        taskService.updateTaskStatus(ids.get(0), "done");
+
+        // Assert
+        assertEquals("done", taskRepository.findById(ids.get(0)).orElseThrow().getStatus().getValue());
+    }
+
+    private List<String> getPendingTitles() {
+        Page<TaskDTO> page = taskService.getTasksByStatus("pending", PageRequest.of(0, 10, Sort.by("id")));
+        return page.getContent().stream().map(TaskDTO::getTitle).toList();
+    }
+}
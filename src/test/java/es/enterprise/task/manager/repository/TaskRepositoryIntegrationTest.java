@@ -0,0 +1,249 @@
+package es.enterprise.task.manager.repository;
+
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.entity.Task;
+import es.enterprise.task.manager.entity.TaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Consultas de TaskRepository contra una base de datos en fichero con el esquema de Flyway.
+// Se ejecuta con: mvn test -Pintegration-test
+@Tag("integration")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("it")
+public class TaskRepositoryIntegrationTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private List<Task> tasks;
+
+    @BeforeEach
+    public void setUp() {
+        tasks = taskRepository.saveAll(List.of(
+                new Task(null, "Task A", "Description A", TaskStatus.PENDING),
+                new Task(null, "Task B", "Description B", TaskStatus.DONE),
+                new Task(null, "Task C", "Description C", TaskStatus.PENDING)
+        ));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void testFindDTOsAfter_KeysetPages() {
+        // Act
+        List<TaskDTO> firstPage = taskRepository.findDTOsAfter(0L, Limit.of(2));
+        List<TaskDTO> secondPage = taskRepository.findDTOsAfter(firstPage.get(1).getId(), Limit.of(2));
+
+        // Assert
+        assertEquals(List.of("Task A", "Task B"), firstPage.stream().map(TaskDTO::getTitle).toList());
+        assertEquals(List.of("Task C"), secondPage.stream().map(TaskDTO::getTitle).toList());
+        assertEquals("pending", firstPage.get(0).getStatus());
+        assertEquals(0L, firstPage.get(0).getVersion());
+    }
+
+    @Test
+    public void testFindDTOsByStatus_Sorted() {
+        // Act
+        Page<TaskDTO> page = taskRepository.findDTOsByStatus(TaskStatus.PENDING, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "title")));
+
+        // Assert
+        assertEquals(2, page.getTotalElements());
+        assertEquals(List.of("Task C", "Task A"), page.getContent().stream().map(TaskDTO::getTitle).toList());
+    }
+
+    @Test
+    public void testFindFieldsAfter_OnlySelectedColumns() {
+        // Act
+        List<TaskDTO> page = taskRepository.findFieldsAfter(Set.of("title"), TaskStatus.DONE, 0L, 10);
+
+        // Assert
+        assertEquals(1, page.size());
+        assertEquals(tasks.get(1).getId(), page.get(0).getId());
+        assertEquals("Task B", page.get(0).getTitle());
+        assertNull(page.get(0).getDescription());
+        assertNull(page.get(0).getStatus());
+    }
+
+    @Test
+    public void testCountByStatus() {
+        // Act
+        Map<TaskStatus, Long> counts = taskRepository.countByStatus().stream()
+                .collect(Collectors.toMap(TaskStatusCount::status, TaskStatusCount::count));
+
+        // Assert
+        assertEquals(Map.of(TaskStatus.PENDING, 2L, TaskStatus.DONE, 1L), counts);
+    }
+
+    @Test
+    public void testPatch_ChecksVersion() {
+        // Arrange
+        Long id = tasks.get(0).getId();
+
+        // Act
+        int stale = taskRepository.patch(id, Map.of("title", "Stale"), 5L);
+        int updated = taskRepository.patch(id, Map.of("title", "Task A2", "status", TaskStatus.DONE), 0L);
+        entityManager.clear();
+
+        // Assert
+        assertEquals(0, stale);
+        assertEquals(1, updated);
+        TaskDTO task = taskRepository.findDTOById(id).orElseThrow();
+        assertEquals("Task A2", task.getTitle());
+        assertEquals("done", task.getStatus());
+        assertEquals(1L, task.getVersion());
+    }
+
+    @Test
+    public void testUpdateStatus() {
+        // Arrange
+        Long id = tasks.get(2).getId();
+
+        // Act
+        int updated = taskRepository.updateStatus(id, TaskStatus.DONE);
+        entityManager.clear();
+
+        // Assert
+        assertEquals(1, updated);
+        assertEquals(TaskStatus.DONE, taskRepository.findStatusById(id).orElseThrow());
+        assertEquals(0, taskRepository.updateStatus(-1L, TaskStatus.DONE));
+    }
+
+    @Test
+    public void testUpdateStatus_SameStatusLeavesRowUnchanged() {
+        // Arrange
+        Long id = tasks.get(1).getId();
+
+        // Act
+        int updated = taskRepository.updateStatus(id, TaskStatus.DONE);
+        int patched = taskRepository.patch(id, Map.of("status", TaskStatus.DONE), null);
+        entityManager.clear();
+
+        // Assert
+        assertEquals(0, updated);
+        assertEquals(0, patched);
+        assertEquals(0L, taskRepository.findDTOById(id).orElseThrow().getVersion());
+    }
+
+    @Test
+    public void testDeleteReturningStatus() {
+        // Arrange
+        Long id = tasks.get(1).getId();
+
+        // Act
+        Optional<TaskStatus> deleted = taskRepository.deleteReturningStatus(id);
+        Optional<TaskStatus> deletedAgain = taskRepository.deleteReturningStatus(id);
+
+        // Assert
+        assertEquals(Optional.of(TaskStatus.DONE), deleted);
+        assertTrue(deletedAgain.isEmpty());
+        assertTrue(taskRepository.findDTOById(id).isEmpty());
+    }
+
+    @Test
+    public void testSoftDeleteReturningStatus() {
+        // Arrange
+        Long id = tasks.get(0).getId();
+
+        // Act
+        Optional<TaskStatus> deleted = taskRepository.softDeleteReturningStatus(id, Instant.now());
+        Optional<TaskStatus> deletedAgain = taskRepository.softDeleteReturningStatus(id, Instant.now());
+        entityManager.clear();
+
+        // Assert
+        assertEquals(Optional.of(TaskStatus.PENDING), deleted);
+        assertTrue(deletedAgain.isEmpty());
+        assertTrue(taskRepository.findDTOById(id).isEmpty());
+    }
+
+    @Test
+    public void testDeleteTaskById() {
+        // Arrange
+        Long id = tasks.get(0).getId();
+
+        // Act
+        int deleted = taskRepository.deleteTaskById(id);
+        int deletedAgain = taskRepository.deleteTaskById(id);
+
+        // Assert
+        assertEquals(1, deleted);
+        assertEquals(0, deletedAgain);
+        assertTrue(taskRepository.findDTOById(id).isEmpty());
+    }
+
+    @Test
+    public void testSoftDeleteById_HidesTask() {
+        // Arrange
+        Long id = tasks.get(0).getId();
+
+        // Act
+        int deleted = taskRepository.softDeleteById(id, Instant.now());
+        int deletedAgain = taskRepository.softDeleteById(id, Instant.now());
+        entityManager.clear();
+
+        // Assert
+        assertEquals(1, deleted);
+        assertEquals(0, deletedAgain);
+        assertTrue(taskRepository.findDTOById(id).isEmpty());
+        assertEquals(0, taskRepository.updateStatus(id, TaskStatus.DONE));
+        assertEquals(2L, taskRepository.findCollectionVersion().count());
+        assertEquals(List.of(id), taskRepository.findIdsDeletedBefore(Instant.now().plusSeconds(1), 10));
+    }
+
+    @Test
+    public void testArchiveAndPurgeDoneTasks() {
+        // Arrange
+        Long doneId = tasks.get(1).getId();
+        List<Long> ids = taskRepository.findDoneIdsUpdatedBefore(TaskStatus.DONE.getCode(), Instant.now().plusSeconds(1), 10);
+
+        // Act
+        int archived = taskRepository.archiveByIds(ids, Instant.now());
+        int purged = taskRepository.purgeByIds(ids);
+        entityManager.clear();
+
+        // Assert
+        assertEquals(List.of(doneId), ids);
+        assertEquals(1, archived);
+        assertEquals(1, purged);
+        assertTrue(taskRepository.findDTOById(doneId).isEmpty());
+        assertTrue(taskRepository.findDoneIdsUpdatedBefore(TaskStatus.DONE.getCode(), Instant.now().minusSeconds(60), 10).isEmpty());
+        assertEquals(1L, ((Number) entityManager.getEntityManager()
+                .createNativeQuery("select count(*) from tasks_archive where id = :id")
+                .setParameter("id", doneId)
+                .getSingleResult()).longValue());
+    }
+
+    @Test
+    public void testFindCollectionVersion() {
+        // Act
+        TaskCollectionVersion version = taskRepository.findCollectionVersion();
+
+        // Assert
+        assertEquals(3L, version.count());
+        assertEquals(tasks.get(2).getId(), version.maxId());
+        assertEquals(0L, version.versionSum());
+    }
+}
@@ -0,0 +1,185 @@
+package es.enterprise.task.manager.repository.memory;
+
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.entity.Task;
+import es.enterprise.task.manager.entity.TaskStatus;
+import es.enterprise.task.manager.repository.TaskStatusCount;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryTaskRepositoryTest {
+
+    @TempDir
+    private Path directory;
+
+    private final List<InMemoryTaskStore> stores = new ArrayList<>();
+    private InMemoryTaskRepository taskRepository;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        taskRepository = open();
+        taskRepository.saveAll(List.of(
+                new Task(null, "Task C", "Description C", TaskStatus.PENDING),
+                new Task(null, "Task A", "Description A", TaskStatus.DONE),
+                new Task(null, "Task B", null, TaskStatus.PENDING)
+        ));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        for (InMemoryTaskStore store : stores) {
+            store.close();
+        }
+    }
+
+    // Abre el almacén sobre el mismo directorio, como tras un reinicio (sin cerrar el anterior: simula una caída)
+    private InMemoryTaskRepository open() throws IOException {
+        InMemoryTaskStore store = new InMemoryTaskStore(new SimpleMeterRegistry(), directory, false, 16);
+        stores.add(store);
+        return new InMemoryTaskRepository(store, false, true, "purge");
+    }
+
+    @Test
+    public void testSave_AssignsIdsAndKeepsVersionWithoutChanges() {
+        // Arrange
+        Task task = taskRepository.findById(1L).orElseThrow();
+
+        // Act
+        Task unchanged = taskRepository.save(task);
+        task.setTitle("Task C2");
+        Task changed = taskRepository.save(task);
+
+        // Assert
+        assertEquals(0L, unchanged.getVersion());
+        assertEquals(1L, changed.getVersion());
+        assertEquals(List.of(1L, 2L, 3L), taskRepository.findAllDTOs().stream().map(TaskDTO::getId).toList());
+        assertEquals("Task C2", taskRepository.findDTOById(1L).orElseThrow().getTitle());
+    }
+
+    @Test
+    public void testSave_StaleVersionFails() {
+        // Arrange
+        Task stale = taskRepository.findById(1L).orElseThrow();
+        taskRepository.updateStatus(1L, TaskStatus.DONE);
+        stale.setTitle("Cambio perdido");
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> taskRepository.save(stale));
+        assertEquals("Task C", taskRepository.findDTOById(1L).orElseThrow().getTitle());
+    }
+
+    @Test
+    public void testStatusIndexes() {
+        // Act
+        taskRepository.patch(3L, Map.of("status", TaskStatus.DONE), 0L);
+        int stalePatch = taskRepository.patch(3L, Map.of("title", "Task B2"), 0L);
+        int sameStatus = taskRepository.updateStatus(3L, TaskStatus.DONE);
+        Optional<TaskStatus> deleted = taskRepository.deleteReturningStatus(2L);
+
+        // Assert
+        assertEquals(0, stalePatch);
+        assertEquals(0, sameStatus);
+        assertEquals(Optional.of(TaskStatus.DONE), deleted);
+        assertEquals(List.of(new TaskStatusCount(TaskStatus.PENDING, 1L), new TaskStatusCount(TaskStatus.DONE, 1L)),
+                taskRepository.countByStatus());
+        assertEquals(List.of(3L), taskRepository.findDTOsByStatusAfter(TaskStatus.DONE, 0L, Limit.of(10))
+                .stream().map(TaskDTO::getId).toList());
+        assertEquals(2L, taskRepository.findCollectionVersion().count());
+        assertEquals(3L, taskRepository.findCollectionVersion().maxId());
+    }
+
+    @Test
+    public void testFindDTOsByStatus_SortedPages() {
+        // Act
+        Page<TaskDTO> byId = taskRepository.findDTOsByStatus(TaskStatus.PENDING, PageRequest.of(0, 1, Sort.by("id").descending()));
+        Page<TaskDTO> byTitle = taskRepository.findDTOsByStatus(TaskStatus.PENDING, PageRequest.of(0, 1, Sort.by("title")));
+
+        // Assert
+        assertEquals(2, byId.getTotalElements());
+        assertEquals(3L, byId.getContent().get(0).getId());
+        assertEquals("Task B", byTitle.getContent().get(0).getTitle());
+    }
+
+    @Test
+    public void testRecovery_ReplaysWriteAheadLog() throws IOException {
+        // Arrange
+        taskRepository.updateStatus(1L, TaskStatus.DONE);
+        taskRepository.deleteTaskById(2L);
+
+        // Act
+        InMemoryTaskRepository recovered = open();
+
+        // Assert
+        assertEquals(List.of(1L, 3L), recovered.findAllDTOs().stream().map(TaskDTO::getId).toList());
+        assertEquals(TaskStatus.DONE, recovered.findStatusById(1L).orElseThrow());
+        assertEquals(1L, recovered.findDTOById(1L).orElseThrow().getVersion());
+        // Los IDs no se reutilizan tras la recuperación
+        assertEquals(4L, recovered.save(new Task(null, "Task D", null, TaskStatus.PENDING)).getId());
+    }
+
+    @Test
+    public void testRecovery_FromSnapshotAndLogTail() throws IOException {
+        // Arrange
+        stores.get(0).snapshot();
+        taskRepository.save(new Task(null, "Task D", null, TaskStatus.PENDING));
+
+        // Act
+        InMemoryTaskRepository recovered = open();
+
+        // Assert
+        assertEquals(4L, recovered.count());
+        assertEquals("Task D", recovered.findDTOById(4L).orElseThrow().getTitle());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1L, files.filter(file -> file.getFileName().toString().endsWith(".snap")).count());
+        }
+    }
+
+    @Test
+    public void testRecovery_DiscardsTornFrame() throws IOException {
+        // Arrange: una trama a medio escribir al final del último segmento, como tras una caída durante el write
+        Path lastSegment;
+        try (Stream<Path> files = Files.list(directory)) {
+            lastSegment = files.filter(file -> file.getFileName().toString().endsWith(".log")).sorted().toList().getLast();
+        }
+        long validSize = Files.size(lastSegment);
+        Files.write(lastSegment, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        // Act
+        InMemoryTaskRepository recovered = open();
+
+        // Assert
+        assertEquals(3L, recovered.count());
+        assertEquals(validSize, Files.size(lastSegment));
+    }
+
+    @Test
+    public void testConstructor_RejectsUnsupportedConfiguration() {
+        // Arrange
+        InMemoryTaskStore store = stores.get(0);
+
+        // Act & Assert: sin borrado lógico ni tabla de archivo, el arranque falla en lugar de cada ejecución
+        assertThrows(IllegalArgumentException.class, () -> new InMemoryTaskRepository(store, true, false, "purge"));
+        assertThrows(IllegalArgumentException.class, () -> new InMemoryTaskRepository(store, false, true, "archive"));
+        assertDoesNotThrow(() -> new InMemoryTaskRepository(store, false, false, "archive"));
+    }
+}
@@ -0,0 +1,101 @@
+package es.enterprise.task.manager.search;
+
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.event.TaskChangeEvent;
+import es.enterprise.task.manager.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class TaskSearchIndexTest {
+
+    private TaskSearchIndex taskSearchIndex;
+
+    @BeforeEach
+    public void setUp() {
+        taskSearchIndex = new TaskSearchIndex();
+        taskSearchIndex.index(new TaskDTO(1L, "Revisar código", "Revisar el informe de la API", "pending"));
+        taskSearchIndex.index(new TaskDTO(2L, "Informe mensual", "Preparar el informe de gastos", "done"));
+        taskSearchIndex.index(new TaskDTO(3L, "Comprar café", "Para la oficina", "pending"));
+    }
+
+    @Test
+    public void testSearch_RanksTitleMatchesFirst() {
+        // Act
+        TaskSearchIndex.SearchHits hits = taskSearchIndex.search("informe", 0, 10);
+
+        // Assert
+        assertEquals(2, hits.total());
+        assertEquals(List.of(2L, 1L), hits.ids());
+    }
+
+    @Test
+    public void testSearch_IgnoresCaseAndAccents() {
+        // Act
+        TaskSearchIndex.SearchHits hits = taskSearchIndex.search("CODIGO", 0, 10);
+
+        // Assert
+        assertEquals(List.of(1L), hits.ids());
+    }
+
+    @Test
+    public void testSearch_Pagination() {
+        // Act
+        TaskSearchIndex.SearchHits hits = taskSearchIndex.search("informe", 1, 1);
+
+        // Assert
+        assertEquals(2, hits.total());
+        assertEquals(List.of(1L), hits.ids());
+    }
+
+    @Test
+    public void testOnTaskChange_UpdateAndDelete() {
+        // Act
+        taskSearchIndex.onTaskChange(TaskChangeEvent.updated(new TaskDTO(3L, "Comprar té", "Para la oficina", "pending"), "pending"));
+        taskSearchIndex.onTaskChange(TaskChangeEvent.deleted(2L, "done"));
+
+        // Assert
+        assertEquals(0, taskSearchIndex.search("cafe", 0, 10).total());
+        assertEquals(List.of(3L), taskSearchIndex.search("te", 0, 10).ids());
+        assertEquals(List.of(1L), taskSearchIndex.search("informe", 0, 10).ids());
+        assertEquals(2, taskSearchIndex.size());
+    }
+
+    @Test
+    public void testRebuild_KeepsChangesReceivedDuringTheBuild() {
+        // Arrange
+        TaskService taskService = mock(TaskService.class);
+        ReflectionTestUtils.setField(taskSearchIndex, "taskService", taskService);
+        doAnswer(invocation -> {
+            Consumer<TaskDTO> consumer = invocation.getArgument(0);
+            consumer.accept(new TaskDTO(1L, "Revisar código", "Revisar el informe de la API", "pending"));
+            // Cambios confirmados mientras se recorre la tabla: el recorrido ya ha leído la tarea 1
+            // y todavía leerá una versión obsoleta de la 2 y la tarea 3 ya borrada
+            taskSearchIndex.onTaskChange(TaskChangeEvent.updated(new TaskDTO(1L, "Revisar pruebas", "Sin informe", "pending"), "pending"));
+            taskSearchIndex.onTaskChange(TaskChangeEvent.updated(new TaskDTO(2L, "Presupuesto anual", "Preparar gastos", "done"), "done"));
+            taskSearchIndex.onTaskChange(TaskChangeEvent.deleted(3L, "pending"));
+            assertEquals(List.of(2L), taskSearchIndex.search("presupuesto", 0, 10).ids());
+            consumer.accept(new TaskDTO(2L, "Informe mensual", "Preparar el informe de gastos", "done"));
+            consumer.accept(new TaskDTO(3L, "Comprar café", "Para la oficina", "pending"));
+            return null;
+        }).when(taskService).streamAllTasks(any());
+
+        // Act
+        taskSearchIndex.rebuild();
+
+        // Assert
+        assertEquals(List.of(1L), taskSearchIndex.search("pruebas", 0, 10).ids());
+        assertEquals(List.of(1L), taskSearchIndex.search("informe", 0, 10).ids());
+        assertEquals(List.of(2L), taskSearchIndex.search("presupuesto", 0, 10).ids());
+        assertEquals(0, taskSearchIndex.search("cafe", 0, 10).total());
+        assertEquals(2, taskSearchIndex.size());
+    }
+}
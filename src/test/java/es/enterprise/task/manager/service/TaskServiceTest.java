@@ -1,18 +1,39 @@
 package es.enterprise.task.manager.service;
 
+import es.enterprise.task.manager.dto.TaskBatchResultDTO;
 import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.dto.TaskFieldsDTO;
+import es.enterprise.task.manager.dto.TaskPageDTO;
 import es.enterprise.task.manager.entity.Task;
+import es.enterprise.task.manager.entity.TaskStatus;
+import es.enterprise.task.manager.event.TaskChangeEvent;
+import es.enterprise.task.manager.exception.InvalidTaskDataException;
 import es.enterprise.task.manager.exception.TaskNotFoundException;
+import es.enterprise.task.manager.exception.TaskVersionConflictException;
+import es.enterprise.task.manager.repository.TaskIdStatus;
 import es.enterprise.task.manager.repository.TaskRepository;
+import es.enterprise.task.manager.search.TaskSearchIndex;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -26,12 +47,21 @@ public class TaskServiceTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TaskSearchIndex taskSearchIndex;
+
     @Test
     public void testGetTaskById_Success() {
         // Arrange
         Long taskId = 1L;
-        Task mockTask = new Task(taskId, "Test Task", "Description", "pending");
-        when(taskRepository.findById(taskId)).thenReturn(Optional.of(mockTask));
+        TaskDTO mockTask = new TaskDTO(taskId, "Test Task", "Description", "pending", 0L);
+        when(taskRepository.findDTOById(taskId)).thenReturn(Optional.of(mockTask));
 
         // Act
         TaskDTO result = taskService.getTaskById(taskId);
@@ -39,25 +69,25 @@ public class TaskServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("Test Task", result.getTitle());
-        verify(taskRepository, times(1)).findById(taskId);
+        verify(taskRepository, times(1)).findDTOById(taskId);
     }
 
     @Test
     public void testGetTaskById_NotFound() {
         // Arrange
         Long taskId = 1L;
-        when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
+        when(taskRepository.findDTOById(taskId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(TaskNotFoundException.class, () -> taskService.getTaskById(taskId));
-        verify(taskRepository, times(1)).findById(taskId);
+        verify(taskRepository, times(1)).findDTOById(taskId);
     }
 
     @Test
     public void testCreateTask() {
         // Arrange
         TaskDTO taskDTO = new TaskDTO(null, "New Task", "Description", "pending");
-        Task mockTask = new Task(1L, "New Task", "Description", "pending");
+        Task mockTask = new Task(1L, "New Task", "Description", TaskStatus.PENDING);
         when(taskRepository.save(any(Task.class))).thenReturn(mockTask);
 
         // Act
@@ -67,6 +97,7 @@ public class TaskServiceTest {
         assertNotNull(result);
         assertEquals("New Task", result.getTitle());
         verify(taskRepository, times(1)).save(any(Task.class));
+        verify(eventPublisher, times(1)).publishEvent(TaskChangeEvent.created(result));
     }
 
 
@@ -74,15 +105,27 @@ public class TaskServiceTest {
     public void testDeleteTask() {
         // Arrange
         Long taskId = 1L;
-        when(taskRepository.existsById(taskId)).thenReturn(true);
-        doNothing().when(taskRepository).deleteById(taskId);
+        when(taskRepository.deleteReturningStatus(taskId)).thenReturn(Optional.of(TaskStatus.PENDING));
 
         // Act
         boolean result = taskService.deleteTask(taskId);
 
         // Assert
         assertTrue(result);
-        verify(taskRepository, times(1)).deleteById(taskId);
+        verify(taskRepository, times(1)).deleteReturningStatus(taskId);
+        verify(taskRepository, never()).findStatusById(taskId);
+        verify(eventPublisher, times(1)).publishEvent(TaskChangeEvent.deleted(taskId, "pending"));
+    }
+
+    @Test
+    public void testDeleteTask_NotFound() {
+        // Arrange
+        Long taskId = 1L;
+        when(taskRepository.deleteReturningStatus(taskId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(TaskNotFoundException.class, () -> taskService.deleteTask(taskId));
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -90,36 +133,361 @@ public class TaskServiceTest {
         // Arrange
         Long taskId = 1L;
         TaskDTO taskDTO = new TaskDTO(null, "Updated Task", "Updated Description", "done");
-        Task mockTask = new Task(taskId, "Old Task", "Old Description", "pending");
+        Task mockTask = new Task(taskId, "Old Task", "Old Description", TaskStatus.PENDING, 4L);
         when(taskRepository.findById(taskId)).thenReturn(Optional.of(mockTask));
-        when(taskRepository.save(any(Task.class))).thenReturn(mockTask);
+        // Tras el flush la entidad lleva la versión nueva
+        when(taskRepository.saveAndFlush(any(Task.class)))
+                .thenReturn(new Task(taskId, "Updated Task", "Updated Description", TaskStatus.DONE, 5L));
 
         // Act
-        TaskDTO result = taskService.updateTask(taskId, taskDTO);
+        TaskDTO result = taskService.updateTask(taskId, taskDTO, 4L);
 
         // Assert
         assertNotNull(result);
         assertEquals("Updated Task", result.getTitle());
         assertEquals("done", result.getStatus());
-        verify(taskRepository, times(1)).save(mockTask);
+        assertEquals(5L, result.getVersion());
+        verify(taskRepository, times(1)).saveAndFlush(mockTask);
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    public void testUpdateTask_VersionMismatch() {
+        // Arrange
+        Long taskId = 1L;
+        TaskDTO taskDTO = new TaskDTO(null, "Updated Task", "Updated Description", "done");
+        Task mockTask = new Task(taskId, "Old Task", "Old Description", TaskStatus.PENDING, 5L);
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(mockTask));
+
+        // Act & Assert
+        assertThrows(TaskVersionConflictException.class, () -> taskService.updateTask(taskId, taskDTO, 4L));
+        verify(taskRepository, never()).saveAndFlush(any(Task.class));
     }
 
     @Test
     public void testGetTasksByStatus() {
         // Arrange
         String status = "pending";
-        List<Task> mockTasks = Arrays.asList(
-                new Task(1L, "Task 1", "Description 1", "pending"),
-                new Task(2L, "Task 2", "Description 2", "pending")
+        Pageable pageable = PageRequest.of(0, 50, Sort.by("id"));
+        List<TaskDTO> mockTasks = Arrays.asList(
+                new TaskDTO(1L, "Task 1", "Description 1", "pending"),
+                new TaskDTO(2L, "Task 2", "Description 2", "pending")
         );
-        when(taskRepository.findByStatus(status)).thenReturn(mockTasks);
+        when(taskRepository.findDTOsByStatus(TaskStatus.PENDING, pageable)).thenReturn(new PageImpl<>(mockTasks, pageable, 2));
 
         // Act
-        List<TaskDTO> result = taskService.getTasksByStatus(status);
+        Page<TaskDTO> result = taskService.getTasksByStatus(status, pageable);
 
         // Assert
         assertNotNull(result);
-        assertEquals(2, result.size());
-        verify(taskRepository, times(1)).findByStatus(status);
+        assertEquals(2, result.getContent().size());
+        assertEquals("pending", result.getContent().get(0).getStatus());
+        verify(taskRepository, times(1)).findDTOsByStatus(TaskStatus.PENDING, pageable);
+    }
+
+    @Test
+    public void testGetTasksByStatus_Empty() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 50);
+        when(taskRepository.findDTOsByStatus(TaskStatus.DONE, pageable)).thenReturn(Page.empty(pageable));
+
+        // Act
+        Page<TaskDTO> result = taskService.getTasksByStatus("done", pageable);
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void testGetTasksByStatus_InvalidStatus() {
+        assertThrows(InvalidTaskDataException.class, () -> taskService.getTasksByStatus("unknown", PageRequest.of(0, 50)));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    public void testGetTasksByStatus_InvalidSort() {
+        Pageable pageable = PageRequest.of(0, 50, Sort.by("description"));
+        assertThrows(InvalidTaskDataException.class, () -> taskService.getTasksByStatus("pending", pageable));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    public void testGetTasksPage_HasNext() {
+        // Arrange
+        List<TaskDTO> mockTasks = Arrays.asList(
+                new TaskDTO(1L, "Task 1", "Description 1", "pending"),
+                new TaskDTO(2L, "Task 2", "Description 2", "done"),
+                new TaskDTO(3L, "Task 3", "Description 3", "pending")
+        );
+        when(taskRepository.findDTOsAfter(0L, Limit.of(3))).thenReturn(mockTasks);
+
+        // Act
+        TaskPageDTO result = taskService.getTasksPage(null, 2, null, null);
+
+        // Assert
+        assertEquals(2, result.getItems().size());
+        assertNotNull(result.getNext());
+        assertEquals(2L, TaskCursor.decode(result.getNext()));
+    }
+
+    @Test
+    public void testGetTasksPage_LastPage() {
+        // Arrange
+        String cursor = TaskCursor.encode(2L);
+        List<TaskDTO> mockTasks = List.of(new TaskDTO(3L, "Task 3", "Description 3", "pending"));
+        when(taskRepository.findDTOsAfter(2L, Limit.of(3))).thenReturn(mockTasks);
+
+        // Act
+        TaskPageDTO result = taskService.getTasksPage(cursor, 2, null, null);
+
+        // Assert
+        assertEquals(1, result.getItems().size());
+        assertNull(result.getNext());
+    }
+
+    @Test
+    public void testGetTasksPage_SelectedFields() {
+        // Arrange
+        TaskDTO sparseTask = new TaskDTO();
+        sparseTask.setId(1L);
+        sparseTask.setTitle("Task 1");
+        when(taskRepository.findFieldsAfter(Set.of("id", "title"), TaskStatus.PENDING, 0L, 11)).thenReturn(List.of(sparseTask));
+
+        // Act
+        TaskPageDTO result = taskService.getTasksPage(null, 10, "pending", "id, title");
+
+        // Assert
+        assertEquals(1, result.getItems().size());
+        assertNull(result.getItems().get(0).getDescription());
+        assertNull(result.getNext());
+        // Solo se serializan los campos pedidos
+        TaskFieldsDTO item = assertInstanceOf(TaskFieldsDTO.class, result.getItems().get(0));
+        assertEquals(Map.of("id", 1L, "title", "Task 1"), item.toJson());
+    }
+
+    @Test
+    public void testGetTasksPage_InvalidField() {
+        assertThrows(InvalidTaskDataException.class, () -> taskService.getTasksPage(null, 10, null, "id,owner"));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    public void testGetTasksPage_InvalidCursor() {
+        assertThrows(InvalidTaskDataException.class, () -> taskService.getTasksPage("no-es-un-cursor!", 10, null, null));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    public void testCreateTasks_InvalidItemDoesNotFailBatch() {
+        // Arrange
+        List<TaskDTO> taskDTOs = Arrays.asList(
+                new TaskDTO(null, "Task 1", "Description 1", "pending"),
+                new TaskDTO(null, "", "Sin título", "pending")
+        );
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(taskRepository.saveAll(anyList())).thenReturn(List.of(new Task(1L, "Task 1", "Description 1", TaskStatus.PENDING)));
+
+        // Act
+        List<TaskBatchResultDTO> results = taskService.createTasks(taskDTOs);
+
+        // Assert
+        assertEquals(2, results.size());
+        assertEquals(201, results.get(0).getStatus());
+        assertEquals(1L, results.get(0).getId());
+        assertEquals(400, results.get(1).getStatus());
+    }
+
+    @Test
+    public void testUpdateTasks_NotFound() {
+        // Arrange
+        List<TaskDTO> taskDTOs = Arrays.asList(
+                new TaskDTO(1L, "Updated Task", "Updated Description", "done"),
+                new TaskDTO(2L, "Missing Task", "Missing Description", "done")
+        );
+        Task existingTask = new Task(1L, "Old Task", "Old Description", TaskStatus.PENDING);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(taskRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(existingTask));
+
+        // Act
+        List<TaskBatchResultDTO> results = taskService.updateTasks(taskDTOs);
+
+        // Assert
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals(404, results.get(1).getStatus());
+        assertEquals(TaskStatus.DONE, existingTask.getStatus());
+    }
+
+    @Test
+    public void testDeleteTasks() {
+        // Arrange
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(taskRepository.findStatusesByIds(List.of(1L, 2L))).thenReturn(List.of(new TaskIdStatus(1L, TaskStatus.DONE)));
+
+        // Act
+        List<TaskBatchResultDTO> results = taskService.deleteTasks(List.of(1L, 2L));
+
+        // Assert
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals(404, results.get(1).getStatus());
+        verify(taskRepository, times(1)).deleteAllByIdInBatch(Set.of(1L));
+        verify(eventPublisher, times(1)).publishEvent(TaskChangeEvent.deleted(1L, "done"));
+    }
+
+    @Test
+    public void testCreateTasks_EmptyBatch() {
+        assertThrows(InvalidTaskDataException.class, () -> taskService.createTasks(List.of()));
+    }
+
+    @Test
+    public void testSearchTasks_KeepsRelevanceOrder() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 10);
+        when(taskSearchIndex.search("informe", 0L, 10)).thenReturn(new TaskSearchIndex.SearchHits(List.of(2L, 1L), 2));
+        when(taskRepository.findDTOsByIds(List.of(2L, 1L))).thenReturn(Arrays.asList(
+                new TaskDTO(1L, "Revisar", "Revisar el informe", "pending"),
+                new TaskDTO(2L, "Informe mensual", "Preparar el informe", "pending")
+        ));
+
+        // Act
+        Page<TaskDTO> result = taskService.searchTasks("informe", pageable);
+
+        // Assert
+        assertEquals(2, result.getTotalElements());
+        assertEquals(2L, result.getContent().get(0).getId());
+        assertEquals(1L, result.getContent().get(1).getId());
+    }
+
+    @Test
+    public void testSearchTasks_EmptyQuery() {
+        assertThrows(InvalidTaskDataException.class, () -> taskService.searchTasks(" ", PageRequest.of(0, 10)));
+        verifyNoInteractions(taskSearchIndex);
+    }
+
+    @Test
+    public void testPatchTask_OnlyPresentFields() {
+        // Arrange
+        Long taskId = 1L;
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("status", "done");
+        patch.put("description", null);
+        when(taskRepository.patch(eq(taskId), anyMap(), eq(3L))).thenReturn(1);
+
+        // Act
+        Long newVersion = taskService.patchTask(taskId, patch, 3L);
+
+        // Assert
+        assertEquals(4L, newVersion);
+        Map<String, Object> expectedChanges = new HashMap<>();
+        expectedChanges.put("status", TaskStatus.DONE);
+        expectedChanges.put("description", null);
+        verify(taskRepository, times(1)).patch(taskId, expectedChanges, 3L);
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).findStatusById(any());
+        verify(eventPublisher, times(1)).publishEvent(TaskChangeEvent.patched(new TaskDTO(taskId, null, null, "done"),
+                Set.of("status", "description"), "pending"));
+    }
+
+    @Test
+    public void testPatchTask_SameStatusAppliesOtherFields() {
+        // Arrange: el UPDATE con el estado no afecta a ninguna fila porque la tarea ya estaba terminada
+        Long taskId = 1L;
+        when(taskRepository.patch(eq(taskId), anyMap(), eq(3L))).thenReturn(0, 1);
+
+        // Act
+        Long newVersion = taskService.patchTask(taskId, Map.of("status", "done", "title", "New title"), 3L);
+
+        // Assert
+        assertEquals(4L, newVersion);
+        verify(taskRepository, times(2)).patch(eq(taskId), anyMap(), eq(3L));
+        verify(eventPublisher, times(1)).publishEvent(TaskChangeEvent.patched(new TaskDTO(taskId, "New title", null, null),
+                Set.of("title"), null));
+    }
+
+    @Test
+    public void testPatchTask_SameStatusOnly() {
+        // Arrange
+        Long taskId = 1L;
+        when(taskRepository.patch(eq(taskId), anyMap(), eq(3L))).thenReturn(0);
+        TaskDTO current = new TaskDTO(taskId, "Task", null, "done");
+        current.setVersion(3L);
+        when(taskRepository.findDTOById(taskId)).thenReturn(Optional.of(current));
+
+        // Act
+        Long version = taskService.patchTask(taskId, Map.of("status", "done"), 3L);
+
+        // Assert: nada cambia, la versión sigue siendo la misma
+        assertEquals(3L, version);
+        verify(taskRepository, times(1)).patch(eq(taskId), anyMap(), eq(3L));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void testPatchTask_NotFound() {
+        // Arrange
+        Long taskId = 1L;
+        when(taskRepository.patch(eq(taskId), anyMap(), isNull())).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(TaskNotFoundException.class, () -> taskService.patchTask(taskId, Map.of("title", "New title"), null));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void testPatchTask_VersionConflict() {
+        // Arrange
+        Long taskId = 1L;
+        when(taskRepository.patch(eq(taskId), anyMap(), eq(2L))).thenReturn(0);
+        when(taskRepository.existsById(taskId)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(TaskVersionConflictException.class, () -> taskService.patchTask(taskId, Map.of("title", "New title"), 2L));
+    }
+
+    @Test
+    public void testPatchTask_UnknownField() {
+        assertThrows(InvalidTaskDataException.class, () -> taskService.patchTask(1L, Map.of("owner", "someone"), null));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    public void testUpdateTaskStatus() {
+        // Arrange
+        when(taskRepository.updateStatus(1L, TaskStatus.DONE)).thenReturn(1);
+
+        // Act
+        taskService.updateTaskStatus(1L, "done");
+
+        // Assert
+        verify(taskRepository, times(1)).updateStatus(1L, TaskStatus.DONE);
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).findStatusById(any());
+        verify(taskRepository, never()).existsById(any());
+        verify(eventPublisher, times(1)).publishEvent(TaskChangeEvent.patched(new TaskDTO(1L, null, null, "done"), Set.of("status"), "pending"));
+    }
+
+    @Test
+    public void testUpdateTaskStatus_NotFound() {
+        // Arrange
+        when(taskRepository.updateStatus(1L, TaskStatus.DONE)).thenReturn(0);
+        when(taskRepository.existsById(1L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(TaskNotFoundException.class, () -> taskService.updateTaskStatus(1L, "done"));
+    }
+
+    @Test
+    public void testUpdateTaskStatus_SameStatus() {
+        // Arrange
+        when(taskRepository.updateStatus(1L, TaskStatus.DONE)).thenReturn(0);
+        when(taskRepository.existsById(1L)).thenReturn(true);
+
+        // Act
+        taskService.updateTaskStatus(1L, "done");
+
+        // Assert
+        verifyNoInteractions(eventPublisher);
     }
 }
@@ -0,0 +1,80 @@
+package es.enterprise.task.manager.stats;
+
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.dto.TaskStatsDTO;
+import es.enterprise.task.manager.entity.TaskStatus;
+import es.enterprise.task.manager.event.TaskChangeEvent;
+import es.enterprise.task.manager.repository.TaskRepository;
+import es.enterprise.task.manager.repository.TaskStatusCount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskStatisticsTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @InjectMocks
+    private TaskStatistics taskStatistics;
+
+    @BeforeEach
+    public void setUp() {
+        when(taskRepository.countByStatus()).thenReturn(List.of(new TaskStatusCount(TaskStatus.PENDING, 3L)));
+        taskStatistics.reconcile();
+    }
+
+    @Test
+    public void testReconcile_IncludesStatusesWithoutTasks() {
+        // Act
+        TaskStatsDTO stats = taskStatistics.getStats();
+
+        // Assert
+        assertEquals(3L, stats.getTotal());
+        assertEquals(3L, stats.getByStatus().get("pending"));
+        assertEquals(0L, stats.getByStatus().get("done"));
+        assertNotNull(stats.getReconciledAt());
+    }
+
+    @Test
+    public void testOnTaskChange_UpdatesCounters() {
+        // Act
+        taskStatistics.onTaskChange(TaskChangeEvent.created(new TaskDTO(4L, "Task 4", null, "done")));
+        taskStatistics.onTaskChange(TaskChangeEvent.patched(new TaskDTO(1L, null, null, "done"), Set.of("status"), "pending"));
+        taskStatistics.onTaskChange(TaskChangeEvent.patched(new TaskDTO(2L, "Nuevo título", null, null), Set.of("title"), null));
+        taskStatistics.onTaskChange(TaskChangeEvent.deleted(3L, "pending"));
+
+        // Assert
+        TaskStatsDTO stats = taskStatistics.getStats();
+        assertEquals(3L, stats.getTotal());
+        assertEquals(1L, stats.getByStatus().get("pending"));
+        assertEquals(2L, stats.getByStatus().get("done"));
+    }
+
+    @Test
+    public void testReconcile_CorrectsDrift() {
+        // Arrange
+        taskStatistics.onTaskChange(TaskChangeEvent.deleted(1L, "pending"));
+        when(taskRepository.countByStatus()).thenReturn(List.of(
+                new TaskStatusCount(TaskStatus.PENDING, 3L),
+                new TaskStatusCount(TaskStatus.DONE, 1L)));
+
+        // Act
+        taskStatistics.reconcile();
+
+        // Assert
+        TaskStatsDTO stats = taskStatistics.getStats();
+        assertEquals(4L, stats.getTotal());
+        assertEquals(3L, stats.getByStatus().get("pending"));
+    }
+}
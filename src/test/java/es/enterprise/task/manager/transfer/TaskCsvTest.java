@@ -0,0 +1,77 @@
+package es.enterprise.task.manager.transfer;
+
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.exception.InvalidTaskDataException;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskCsvTest {
+
+    @Test
+    public void testWriteAndRead_RoundTripWithQuotedFields() throws Exception {
+        // Arrange
+        List<TaskDTO> tasks = List.of(
+                new TaskDTO(1L, "Task 1", "Plain description", "pending", 0L),
+                new TaskDTO(2L, "Task, with comma", "Line 1\nLine 2 with \"quotes\"", "done", 3L),
+                new TaskDTO(3L, "Task 3", null, "pending", 1L));
+        StringWriter writer = new StringWriter();
+
+        // Act
+        TaskCsv.writeHeader(writer);
+        for (TaskDTO task : tasks) {
+            TaskCsv.writeRow(writer, task);
+        }
+        List<TaskDTO> read = new ArrayList<>();
+        TaskCsv.reader(new StringReader(writer.toString())).forEachRemaining(read::add);
+
+        // Assert
+        assertTrue(writer.toString().contains("\"Line 1\nLine 2 with \"\"quotes\"\"\""));
+        assertEquals(tasks, read);
+    }
+
+    @Test
+    public void testRead_ColumnsInAnyOrderAndMissing() {
+        // Act
+        Iterator<TaskDTO> tasks = TaskCsv.reader(new StringReader("status,title\ndone,Task A\n\n,Task B"));
+
+        // Assert
+        assertEquals(new TaskDTO(null, "Task A", null, "done", null), tasks.next());
+        assertEquals(new TaskDTO(null, "Task B", null, null, null), tasks.next());
+        assertFalse(tasks.hasNext());
+    }
+
+    @Test
+    public void testRead_EndRecordStopsIteration() throws Exception {
+        // Arrange
+        StringWriter writer = new StringWriter();
+        TaskCsv.writeHeader(writer);
+        TaskCsv.writeRow(writer, new TaskDTO(1L, "Task 1", null, "pending", 0L));
+        TaskCsv.writeEnd(writer, 1);
+
+        // Act
+        TaskFileReader tasks = TaskCsv.reader(new StringReader(writer.toString()));
+        TaskDTO task = tasks.next();
+
+        // Assert
+        assertEquals("Task 1", task.getTitle());
+        assertFalse(tasks.hasNext());
+        assertEquals(1L, tasks.endCount());
+        assertThrows(InvalidTaskDataException.class,
+                () -> TaskCsv.reader(new StringReader("title\nTask 1\n#endOfExport,1\nTask 2\n")).next());
+    }
+
+    @Test
+    public void testRead_InvalidCsv_ThrowsInvalidTaskDataException() {
+        // Act & Assert
+        assertThrows(InvalidTaskDataException.class, () -> TaskCsv.reader(new StringReader("")));
+        assertThrows(InvalidTaskDataException.class, () -> TaskCsv.reader(new StringReader("id,status\n1,done")));
+        assertThrows(InvalidTaskDataException.class, () -> TaskCsv.reader(new StringReader("title\n\"Unclosed")));
+    }
+}
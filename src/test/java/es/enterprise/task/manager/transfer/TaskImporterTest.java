@@ -0,0 +1,129 @@
+package es.enterprise.task.manager.transfer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import es.enterprise.task.manager.dto.TaskBatchResultDTO;
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.dto.TaskImportResultDTO;
+import es.enterprise.task.manager.service.TaskService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskImporterTest {
+
+    @Mock
+    private TaskService taskService;
+
+    private TaskImporter taskImporter;
+
+    @BeforeEach
+    public void setUp() {
+        taskImporter = new TaskImporter(taskService, new SimpleMeterRegistry(), 2, 10, 1000);
+        // Simula createTasks: las tareas sin título se rechazan con 400
+        lenient().when(taskService.createTasks(anyList())).thenAnswer(invocation -> {
+            List<TaskDTO> tasks = invocation.getArgument(0);
+            List<TaskBatchResultDTO> results = new ArrayList<>();
+            for (int i = 0; i < tasks.size(); i++) {
+                results.add(tasks.get(i).getTitle() == null
+                        ? new TaskBatchResultDTO(i, null, 400, "El título de la tarea no puede estar vacío")
+                        : new TaskBatchResultDTO(i, 100L + i, 201, null));
+            }
+            return results;
+        });
+    }
+
+    private TaskDTO task(String title) {
+        return new TaskDTO(null, title, null, "pending");
+    }
+
+    @Test
+    public void testImportTasks_WritesInBatchesAndReportsRowErrors() {
+        // Act
+        TaskImportResultDTO result = taskImporter.importTasks(List.of(task("A"), task("B"), task(null), task("D"), task("E")).iterator());
+
+        // Assert
+        verify(taskService, times(3)).createTasks(anyList());
+        assertTrue(result.isCompleted());
+        assertEquals(5, result.getTotal());
+        assertEquals(4, result.getCreated());
+        assertEquals(1, result.getFailed());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(2, result.getErrors().get(0).getIndex());
+    }
+
+    @Test
+    public void testImportTasks_FormatErrorKeepsImportedRows() {
+        // Arrange: la tercera fila no se puede leer
+        Iterator<TaskDTO> tasks = new Iterator<>() {
+            private int row;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public TaskDTO next() {
+                if (++row == 3) {
+                    throw new IllegalStateException("JSON no válido en la fila 3");
+                }
+                return task("Task " + row);
+            }
+        };
+
+        // Act
+        TaskImportResultDTO result = taskImporter.importTasks(tasks);
+
+        // Assert
+        assertFalse(result.isCompleted());
+        assertEquals("JSON no válido en la fila 3", result.getError());
+        assertEquals(2, result.getTotal());
+        assertEquals(2, result.getCreated());
+    }
+
+    @Test
+    public void testImportTasks_NdjsonWithEndLine() throws Exception {
+        // Arrange
+        String ndjson = "{\"title\":\"A\"}\n{\"title\":\"B\",\"status\":\"done\"}\n{\"endOfExport\":true,\"count\":2}\n";
+
+        // Act
+        TaskImportResultDTO result = taskImporter.importTasks(TaskNdjson.reader(new ObjectMapper(), input(ndjson)));
+
+        // Assert
+        assertTrue(result.isCompleted());
+        assertEquals(2, result.getCreated());
+    }
+
+    @Test
+    public void testImportTasks_EndLineCountMismatchIsIncomplete() throws Exception {
+        // Arrange: el fichero dice tener 3 tareas y solo trae 2
+        String ndjson = "{\"title\":\"A\"}\n{\"title\":\"B\"}\n{\"endOfExport\":true,\"count\":3}\n";
+
+        // Act
+        TaskImportResultDTO result = taskImporter.importTasks(TaskNdjson.reader(new ObjectMapper(), input(ndjson)));
+
+        // Assert
+        assertFalse(result.isCompleted());
+        assertEquals(2, result.getCreated());
+        assertEquals("El fichero indica 3 tareas y se han leído 2", result.getError());
+    }
+
+    private InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
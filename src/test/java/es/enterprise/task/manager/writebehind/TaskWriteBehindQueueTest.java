@@ -0,0 +1,104 @@
+package es.enterprise.task.manager.writebehind;
+
+import es.enterprise.task.manager.dto.TaskBatchResultDTO;
+import es.enterprise.task.manager.dto.TaskDTO;
+import es.enterprise.task.manager.dto.TaskWriteStatusDTO;
+import es.enterprise.task.manager.exception.InvalidTaskDataException;
+import es.enterprise.task.manager.exception.WriteQueueFullException;
+import es.enterprise.task.manager.service.TaskService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskWriteBehindQueueTest {
+
+    @Mock
+    private TaskService taskService;
+
+    private TaskWriteBehindQueue queue(int capacity) {
+        return new TaskWriteBehindQueue(taskService, new SimpleMeterRegistry(), capacity, 100,
+                Duration.ofMillis(10), Duration.ofMinutes(1), Duration.ofSeconds(5));
+    }
+
+    // Simula createTasks: cada tarea con título "fail" da 400, el resto se crean con ID 100 + posición
+    private List<TaskBatchResultDTO> createResults(List<TaskDTO> tasks) {
+        List<TaskBatchResultDTO> results = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            results.add("fail".equals(tasks.get(i).getTitle())
+                    ? new TaskBatchResultDTO(i, null, 400, "Estado de tarea no válido")
+                    : new TaskBatchResultDTO(i, 100L + i, 201, null));
+        }
+        return results;
+    }
+
+    @Test
+    public void testStop_FlushesQueuedTasks() {
+        // Arrange
+        when(taskService.createTasks(anyList())).thenAnswer(invocation -> createResults(invocation.getArgument(0)));
+        TaskWriteBehindQueue queue = queue(100);
+        queue.start();
+
+        // Act
+        String first = queue.submit(new TaskDTO(null, "Task 1", null, "pending"));
+        String second = queue.submit(new TaskDTO(null, "fail", null, "pending"));
+        queue.stop();
+
+        // Assert
+        assertEquals(0, queue.getQueueSize());
+        TaskWriteStatusDTO created = queue.getStatus(first).orElseThrow();
+        assertEquals(TaskWriteStatusDTO.CREATED, created.getState());
+        assertNotNull(created.getTaskId());
+        assertEquals(TaskWriteStatusDTO.FAILED, queue.getStatus(second).orElseThrow().getState());
+        assertThrows(WriteQueueFullException.class, () -> queue.submit(new TaskDTO(null, "Task 3", null, "pending")));
+    }
+
+    @Test
+    public void testSubmit_FullQueue_ThrowsWriteQueueFullException() throws Exception {
+        // Arrange: el escritor se queda bloqueado con la primera tarea
+        CountDownLatch release = new CountDownLatch(1);
+        when(taskService.createTasks(anyList())).thenAnswer(invocation -> {
+            release.await();
+            return createResults(invocation.getArgument(0));
+        });
+        TaskWriteBehindQueue queue = queue(1);
+        queue.start();
+        String first = queue.submit(new TaskDTO(null, "Task 1", null, "pending"));
+        while (queue.getQueueSize() > 0) {
+            Thread.sleep(1);
+        }
+        queue.submit(new TaskDTO(null, "Task 2", null, "pending"));
+
+        // Act & Assert
+        assertThrows(WriteQueueFullException.class, () -> queue.submit(new TaskDTO(null, "Task 3", null, "pending")));
+        assertEquals(TaskWriteStatusDTO.QUEUED, queue.getStatus(first).orElseThrow().getState());
+        release.countDown();
+        queue.stop();
+        verify(taskService, times(2)).createTasks(anyList());
+    }
+
+    @Test
+    public void testSubmit_InvalidTask_ThrowsInvalidTaskDataException() {
+        // Arrange
+        TaskWriteBehindQueue queue = queue(10);
+        queue.start();
+
+        // Act & Assert
+        assertThrows(InvalidTaskDataException.class, () -> queue.submit(new TaskDTO(null, "", null, "pending")));
+        assertThrows(InvalidTaskDataException.class, () -> queue.submit(new TaskDTO(null, "Task", null, "unknown")));
+        assertEquals(0, queue.getQueueSize());
+        queue.stop();
+        verifyNoInteractions(taskService);
+    }
+}